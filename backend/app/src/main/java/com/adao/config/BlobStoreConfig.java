@@ -0,0 +1,60 @@
+package com.adao.config;
+
+import com.adao.storage.BlobStore;
+import com.adao.storage.LocalBlobStore;
+import com.adao.storage.S3BlobStore;
+import com.adao.storage.ShardedBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+public class BlobStoreConfig {
+
+    @Value("${app.storage.type:local}")
+    private String type;
+
+    @Value("${app.storage.dir:uploads}")
+    private String dir;
+
+    @Value("${app.storage.publicUrl:http://localhost:8080/api/uploads/}")
+    private String publicUrl;
+
+    @Value("${app.storage.s3.endpoint:}")
+    private String s3Endpoint;
+
+    @Value("${app.storage.s3.region:us-east-1}")
+    private String s3Region;
+
+    @Value("${app.storage.s3.bucket:}")
+    private String s3Bucket;
+
+    @Value("${app.storage.s3.accessKey:}")
+    private String s3AccessKey;
+
+    @Value("${app.storage.s3.secretKey:}")
+    private String s3SecretKey;
+
+    @Value("${app.storage.s3.pathStyle:true}")
+    private boolean s3PathStyle;
+
+    @Value("${app.storage.s3.publicUrl:}")
+    private String s3PublicUrl;
+
+    @Bean
+    public BlobStore blobStore() throws IOException {
+        switch (type) {
+            case "local":
+                return new LocalBlobStore(Paths.get(dir), publicUrl);
+            case "sharded":
+                return new ShardedBlobStore(Paths.get(dir), publicUrl);
+            case "s3":
+                return new S3BlobStore(s3Endpoint, s3Region, s3Bucket, s3AccessKey, s3SecretKey, s3PathStyle, s3PublicUrl);
+            default:
+                throw new IllegalStateException("Unknown app.storage.type: " + type);
+        }
+    }
+}
@@ -6,23 +6,40 @@ import com.adao.entity.Role;
 import com.adao.entity.RoleName;
 import com.adao.repository.RoleRepository;
 import com.adao.service.AdminService;
+import com.adao.service.BookingCounterService;
+import com.adao.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private RoleRepository roleRepository;
 
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingCounterService bookingCounterService;
+
     @Override
     public void run(String... args) throws Exception {
         initializeRoles();
         initializeDefaultAdmin();
+        initializeBookingSlots();
+        initializeBookingCounters();
     }
 
     private void initializeRoles() {
@@ -38,7 +55,7 @@ public class DataInitializer implements CommandLineRunner {
             roleRepository.save(cleanerRole);
             roleRepository.save(customerRole);
 
-            System.out.println("Roles initialized successfully!");
+            logger.info("Roles initialized");
         }
     }
 
@@ -54,7 +71,21 @@ public class DataInitializer implements CommandLineRunner {
             superAdmin.setAdminLevel(AdminLevel.SUPER_ADMIN);
 
             adminService.createSuperAdmin(superAdmin);
-            System.out.println("Default super admin created successfully!");
+            logger.info("Default super admin created");
+        }
+    }
+
+    private void initializeBookingSlots() {
+        int reserved = bookingService.backfillBookingSlots();
+        if (reserved > 0) {
+            logger.info("Reserved booking slots for {} existing bookings", reserved);
+        }
+    }
+
+    private void initializeBookingCounters() {
+        if (bookingCounterService.isEmpty()) {
+            int created = bookingCounterService.reconcile();
+            logger.info("Booking counters initialized with {} entries", created);
         }
     }
 }
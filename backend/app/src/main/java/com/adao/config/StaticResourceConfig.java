@@ -1,29 +0,0 @@
-package com.adao.config;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
-@Configuration
-public class StaticResourceConfig implements WebMvcConfigurer {
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve files from the local uploads directory under the application context path
-        Path uploadDir = Paths.get("uploads");
-        String uploadPath = uploadDir.toFile().getAbsolutePath();
-
-        // Since the application has context-path: /api, we need to handle both /api/uploads/** and /uploads/**
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadPath + "/");
-        
-        // Also handle direct access without /api prefix for flexibility
-        registry.addResourceHandler("/api/uploads/**")
-                .addResourceLocations("file:" + uploadPath + "/");
-    }
-}
-
-
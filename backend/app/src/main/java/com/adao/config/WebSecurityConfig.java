@@ -3,9 +3,13 @@ package com.adao.config;
 import com.adao.security.AuthEntryPointJwt;
 import com.adao.security.AuthTokenFilter;
 import com.adao.security.CustomUserDetailsService;
+import com.adao.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -17,11 +21,13 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -34,6 +40,13 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Networks the Prometheus server scrapes from; the scrape endpoint takes no credentials
+    @Value("${app.metrics.scrapeAllowedFrom:127.0.0.1/32,::1/128}")
+    private String[] scrapeAllowedFrom;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -54,11 +67,17 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        List<IpAddressMatcher> scrapers = Arrays.stream(scrapeAllowedFrom)
+                .map(String::trim)
+                .filter(network -> !network.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
@@ -75,6 +94,10 @@ public class WebSecurityConfig {
                     // Important: matchers are evaluated WITHOUT the context-path. Permit both patterns.
                     .requestMatchers("/uploads/**").permitAll()
                     .requestMatchers("/api/uploads/**").permitAll()
+                    .requestMatchers("/actuator/prometheus").access((authentication, context) ->
+                        new AuthorizationDecision(scrapers.stream()
+                            .anyMatch(network -> network.matches(context.getRequest().getRemoteAddr()))))
+                    .requestMatchers("/actuator/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
                     .anyRequest().authenticated()
             );
 
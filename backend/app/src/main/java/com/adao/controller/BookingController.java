@@ -1,25 +1,62 @@
 package com.adao.controller;
 
+import com.adao.dto.AvailabilityMatrixResponse;
+import com.adao.dto.BookingPageResponse;
 import com.adao.dto.BookingRequest;
 import com.adao.entity.Booking;
+import com.adao.projection.BookingSummary;
+import com.adao.service.BookingExportService;
 import com.adao.service.BookingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/bookings")
 public class BookingController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<?> createBooking(@Valid @RequestBody BookingRequest request) {
@@ -40,22 +77,159 @@ public class BookingController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
+    public ResponseEntity<List<BookingSummary>> getAllBookings() {
+        List<BookingSummary> bookings = bookingService.getAllBookings();
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> getBookingsPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            LocalDateTime afterDate = null;
+            Long afterId = null;
+            if (StringUtils.hasText(cursor)) {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                afterDate = LocalDateTime.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            }
+
+            List<BookingSummary> bookings = bookingService.getBookingsPage(afterDate, afterId, pageSize);
+            String nextCursor = null;
+            if (bookings.size() == pageSize) {
+                BookingSummary last = bookings.get(bookings.size() - 1);
+                String key = last.getBookingDate() + "|" + last.getId();
+                nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return ResponseEntity.ok(new BookingPageResponse<>(bookings, nextCursor));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: Invalid cursor");
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamBookings() {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            bookingService.streamAllBookings(booking -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(booking));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> exportBookings(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(value = "columns", required = false) List<String> columns,
+                                            @RequestParam(value = "format", defaultValue = "csv") String format,
+                                            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        List<String> selected = columns == null || columns.isEmpty()
+                ? new ArrayList<>(BookingExportService.COLUMNS.keySet()) : columns;
+        try {
+            bookingExportService.validateColumns(selected);
+            if (to.isBefore(from)) {
+                throw new RuntimeException("'to' is before 'from'");
+            }
+            if (!format.equals("csv") && !format.equals("ndjson")) {
+                throw new RuntimeException("Unsupported format: " + format);
+            }
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+
+        boolean csv = format.equals("csv");
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : new BufferedOutputStream(outputStream, 64 * 1024);
+            if (csv) {
+                writeCsv(out, from, to, selected);
+            } else {
+                writeNdjson(out, from, to, selected);
+            }
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+            out.flush();
+        };
+        String filename = "bookings-" + from + "-" + to + "." + format + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(csv ? CSV : NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private void writeCsv(OutputStream out, LocalDate from, LocalDate to, List<String> columns) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        bookingExportService.exportBookings(from, to, columns, row -> {
+            try {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(csvField(row[i]));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeNdjson(OutputStream out, LocalDate from, LocalDate to, List<String> columns) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        bookingExportService.exportBookings(from, to, columns, row -> {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < row.length; i++) {
+                    generator.writeFieldName(columns.get(i));
+                    generator.writeObject(row[i]);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
-    public ResponseEntity<List<Booking>> getBookingsByCustomer(@PathVariable("customerId") Long customerId) {
-        List<Booking> bookings = bookingService.getBookingsByCustomer(customerId);
+    public ResponseEntity<List<BookingSummary>> getBookingsByCustomer(@PathVariable("customerId") Long customerId) {
+        List<BookingSummary> bookings = bookingService.getBookingsByCustomer(customerId);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/cleaner/{cleanerId}")
     @PreAuthorize("hasRole('CLEANER') or hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
-    public ResponseEntity<List<Booking>> getBookingsByCleaner(@PathVariable("cleanerId") Long cleanerId) {
-        List<Booking> bookings = bookingService.getBookingsByCleaner(cleanerId);
+    public ResponseEntity<List<BookingSummary>> getBookingsByCleaner(@PathVariable("cleanerId") Long cleanerId) {
+        List<BookingSummary> bookings = bookingService.getBookingsByCleaner(cleanerId);
         return ResponseEntity.ok(bookings);
     }
 
@@ -70,6 +244,18 @@ public class BookingController {
         }
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailabilityMatrix(@RequestParam("cleanerIds") List<Long> cleanerIds,
+                                                   @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            Map<Long, BitSet> matrix = bookingService.getAvailabilityMatrix(cleanerIds, from, to);
+            return ResponseEntity.ok(new AvailabilityMatrixResponse(from, to, matrix));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Booking> getBookingById(@PathVariable("id") Long id) {
         Optional<Booking> booking = bookingService.getBookingById(id);
@@ -5,14 +5,21 @@ import com.adao.entity.Cleaner;
 import com.adao.entity.CleanerStatus;
 import com.adao.entity.UserStatus;
 import com.adao.service.CleanerService;
+import com.adao.service.CustomerService;
+import com.adao.service.GeoPoint;
+import com.adao.service.PostalCodeGeocoder;
 import com.adao.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,12 +28,23 @@ import java.util.Optional;
 @RequestMapping("/cleaners")
 public class CleanerController {
 
+    private static final Logger logger = LoggerFactory.getLogger(CleanerController.class);
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final double MAX_NEARBY_RADIUS_KM = 200;
+
     @Autowired
     private CleanerService cleanerService;
     
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private PostalCodeGeocoder geocoder;
+
     @PostMapping("/register")
     public ResponseEntity<?> registerCleaner(@Valid @RequestBody CleanerRegistrationRequest request) {
         try {
@@ -74,13 +92,96 @@ public class CleanerController {
     @GetMapping("/available")
     public ResponseEntity<List<Cleaner>> getAvailableCleaners() {
         List<Cleaner> cleaners = cleanerService.getAvailableCleaners();
-        System.out.println("Returning " + cleaners.size() + " cleaners");
-        if (!cleaners.isEmpty()) {
-            System.out.println("First cleaner: " + cleaners.get(0).getFirstName() + " " + cleaners.get(0).getLastName());
-        }
+        logger.debug("Returning {} available cleaners", cleaners.size());
         return ResponseEntity.ok(cleaners);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<?> searchCleaners(@RequestParam(value = "city", required = false) String city,
+                                            @RequestParam(value = "region", required = false) String region,
+                                            @RequestParam(value = "status", required = false) CleanerStatus status,
+                                            @RequestParam(value = "minRate", required = false) BigDecimal minRate,
+                                            @RequestParam(value = "maxRate", required = false) BigDecimal maxRate,
+                                            @RequestParam(value = "sort", defaultValue = "rate") String sort,
+                                            @RequestParam(value = "page", defaultValue = "0") int page,
+                                            @RequestParam(value = "size", defaultValue = "20") int size) {
+        try {
+            if (!"rate".equals(sort) && !"-rate".equals(sort)) {
+                throw new RuntimeException("sort must be rate or -rate");
+            }
+            if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+                throw new RuntimeException("page must be >= 0 and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+            }
+            return ResponseEntity.ok(cleanerService.searchCleaners(city, region, status, minRate, maxRate,
+                    sort.startsWith("-"), page, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<?> searchCleanersByText(@RequestParam("q") String text,
+                                                  @RequestParam(value = "page", defaultValue = "0") int page,
+                                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        try {
+            if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+                throw new RuntimeException("page must be >= 0 and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+            }
+            return ResponseEntity.ok(cleanerService.searchCleanersByText(text, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/nearby")
+    @PreAuthorize("#customerId == null or hasRole('ADMIN') or hasRole('SUPER_ADMIN') or @ownership.isOwner(authentication, #customerId)")
+    public ResponseEntity<?> getNearbyCleaners(@RequestParam(value = "customerId", required = false) Long customerId,
+                                               @RequestParam(value = "latitude", required = false) Double latitude,
+                                               @RequestParam(value = "longitude", required = false) Double longitude,
+                                               @RequestParam(value = "postalCode", required = false) String postalCode,
+                                               @RequestParam(value = "city", required = false) String city,
+                                               @RequestParam(value = "radiusKm", defaultValue = "10") double radiusKm,
+                                               @RequestParam(value = "status", defaultValue = "AVAILABLE") CleanerStatus status,
+                                               @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM || limit < 1 || limit > MAX_SEARCH_PAGE_SIZE) {
+                throw new RuntimeException("radiusKm must be in (0, " + MAX_NEARBY_RADIUS_KM
+                        + "] and limit between 1 and " + MAX_SEARCH_PAGE_SIZE);
+            }
+            Optional<GeoPoint> origin = resolveOrigin(customerId, latitude, longitude, postalCode, city);
+            if (origin.isEmpty()) {
+                throw new RuntimeException("Location unknown; give latitude and longitude, a customerId, a postalCode or a city");
+            }
+            return ResponseEntity.ok(cleanerService.findNearbyCleaners(origin.get(), radiusKm, status, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/recommendations")
+    @PreAuthorize("#customerId == null or hasRole('ADMIN') or hasRole('SUPER_ADMIN') or @ownership.isOwner(authentication, #customerId)")
+    public ResponseEntity<?> getRecommendedCleaners(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                    @RequestParam(value = "customerId", required = false) Long customerId,
+                                                    @RequestParam(value = "latitude", required = false) Double latitude,
+                                                    @RequestParam(value = "longitude", required = false) Double longitude,
+                                                    @RequestParam(value = "postalCode", required = false) String postalCode,
+                                                    @RequestParam(value = "city", required = false) String city,
+                                                    @RequestParam(value = "radiusKm", defaultValue = "20") double radiusKm,
+                                                    @RequestParam(value = "maxRate", required = false) BigDecimal maxRate,
+                                                    @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM || limit < 1 || limit > MAX_SEARCH_PAGE_SIZE) {
+                throw new RuntimeException("radiusKm must be in (0, " + MAX_NEARBY_RADIUS_KM
+                        + "] and limit between 1 and " + MAX_SEARCH_PAGE_SIZE);
+            }
+            // Without a known location the recommendations are ranked by rate alone
+            GeoPoint origin = resolveOrigin(customerId, latitude, longitude, postalCode, city).orElse(null);
+            return ResponseEntity.ok(cleanerService.recommendCleaners(date, origin, radiusKm, maxRate, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Cleaner> getCleanerById(@PathVariable("id") Long id) {
         Optional<Cleaner> cleaner = cleanerService.getCleanerById(id);
@@ -89,7 +190,7 @@ public class CleanerController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CLEANER') and @cleanerService.getCleanerById(#id).orElse(null)?.getUsername() == authentication.name)")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CLEANER') and @ownership.isOwner(authentication, #id))")
     public ResponseEntity<Cleaner> updateCleaner(@PathVariable("id") Long id, @Valid @RequestBody Cleaner cleaner) {
         Optional<Cleaner> existingCleaner = cleanerService.getCleanerById(id);
         if (existingCleaner.isPresent()) {
@@ -101,7 +202,7 @@ public class CleanerController {
     }
 
     @PutMapping("/{id}/status")
-    @PreAuthorize("hasRole('CLEANER') and @cleanerService.getCleanerById(#id).orElse(null)?.getUsername() == authentication.name")
+    @PreAuthorize("hasRole('CLEANER') and @ownership.isOwner(authentication, #id)")
     public ResponseEntity<Cleaner> updateCleanerStatus(@PathVariable("id") Long id, @RequestParam CleanerStatus status) {
         try {
             Cleaner updatedCleaner = cleanerService.updateCleanerStatus(id, status);
@@ -112,7 +213,7 @@ public class CleanerController {
     }
 
     @PutMapping("/{id}/rate")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CLEANER') and @cleanerService.getCleanerById(#id).orElse(null)?.getUsername() == authentication.name)")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CLEANER') and @ownership.isOwner(authentication, #id))")
     public ResponseEntity<Cleaner> updateCleanerRate(@PathVariable("id") Long id, @RequestParam BigDecimal hourlyRate) {
         try {
             Cleaner updatedCleaner = cleanerService.updateCleanerRate(id, hourlyRate);
@@ -162,14 +263,24 @@ public class CleanerController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
     public ResponseEntity<?> migratePendingToAvailable() {
         try {
-            List<Cleaner> updatedCleaners = cleanerService.migratePendingToAvailable();
+            int updatedCleaners = cleanerService.migratePendingToAvailable();
             return ResponseEntity.ok(java.util.Map.of(
-                "message", "Successfully migrated " + updatedCleaners.size() + " cleaners from PENDING_APPROVAL to AVAILABLE",
-                "updatedCleaners", updatedCleaners.size()
+                "message", "Successfully migrated " + updatedCleaners + " cleaners from PENDING_APPROVAL to AVAILABLE",
+                "updatedCleaners", updatedCleaners
             ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
 
+    private Optional<GeoPoint> resolveOrigin(Long customerId, Double latitude, Double longitude,
+                                             String postalCode, String city) {
+        if (latitude != null && longitude != null) {
+            return Optional.of(new GeoPoint(latitude, longitude));
+        }
+        if (customerId != null) {
+            return customerService.getCustomerLocation(customerId);
+        }
+        return geocoder.locate(postalCode, city);
+    }
 }
@@ -66,7 +66,7 @@ public class CustomerController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CUSTOMER') and @customerService.getCustomerById(#id).orElse(null)?.getUsername() == authentication.name)")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CUSTOMER') and @ownership.isOwner(authentication, #id))")
     public ResponseEntity<Customer> updateCustomer(@PathVariable("id") Long id, @Valid @RequestBody Customer customer) {
         Optional<Customer> existingCustomer = customerService.getCustomerById(id);
         if (existingCustomer.isPresent()) {
@@ -78,7 +78,7 @@ public class CustomerController {
     }
 
     @PutMapping("/{id}/address")
-    @PreAuthorize("hasRole('CUSTOMER') and @customerService.getCustomerById(#id).orElse(null)?.getUsername() == authentication.name")
+    @PreAuthorize("hasRole('CUSTOMER') and @ownership.isOwner(authentication, #id)")
     public ResponseEntity<Customer> updateCustomerAddress(@PathVariable("id") Long id,
                                                           @RequestParam String address,
                                                           @RequestParam(required = false) String city,
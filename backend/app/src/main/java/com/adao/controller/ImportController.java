@@ -0,0 +1,49 @@
+package com.adao.controller;
+
+import com.adao.importer.UserImportReader;
+import com.adao.service.UserImportResult;
+import com.adao.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping(value = "/cleaners", consumes = {UserImportReader.CSV, UserImportReader.NDJSON})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> importCleaners(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) {
+        try (UserImportReader reader = UserImportReader.open(body, contentType, objectMapper)) {
+            UserImportResult result = userImportService.importCleaners(reader);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/customers", consumes = {UserImportReader.CSV, UserImportReader.NDJSON})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> importCustomers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                             InputStream body) {
+        try (UserImportReader reader = UserImportReader.open(body, contentType, objectMapper)) {
+            UserImportResult result = userImportService.importCustomers(reader);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.adao.controller;
+
+import com.adao.service.BookingStats;
+import com.adao.service.StatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    @Autowired
+    private StatsService statsService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<BookingStats> getSystemStats() {
+        return ResponseEntity.ok(statsService.getSystemStats());
+    }
+
+    @GetMapping("/cleaner/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CLEANER') and @ownership.isOwner(authentication, #id))")
+    public ResponseEntity<BookingStats> getCleanerStats(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(statsService.getCleanerStats(id));
+    }
+
+    @GetMapping("/customer/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or (hasRole('CUSTOMER') and @ownership.isOwner(authentication, #id))")
+    public ResponseEntity<BookingStats> getCustomerStats(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(statsService.getCustomerStats(id));
+    }
+}
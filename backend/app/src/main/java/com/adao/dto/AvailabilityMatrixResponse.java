@@ -0,0 +1,48 @@
+package com.adao.dto;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class AvailabilityMatrixResponse {
+    private LocalDate from;
+    private LocalDate to;
+    // Base64 of a little-endian bitset, one bit per day from "from" to "to": day i is bit (i % 8) of
+    // byte (i / 8), least significant bit first; 1 = available, 0 = booked. Trailing zero bytes are
+    // omitted, so days past the end of the decoded bytes are booked.
+    private Map<Long, String> cleaners;
+
+    public AvailabilityMatrixResponse(LocalDate from, LocalDate to, Map<Long, BitSet> matrix) {
+        this.from = from;
+        this.to = to;
+        this.cleaners = new LinkedHashMap<>();
+        matrix.forEach((cleanerId, free) ->
+                cleaners.put(cleanerId, Base64.getEncoder().encodeToString(free.toByteArray())));
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Map<Long, String> getCleaners() {
+        return cleaners;
+    }
+
+    public void setCleaners(Map<Long, String> cleaners) {
+        this.cleaners = cleaners;
+    }
+}
@@ -0,0 +1,30 @@
+package com.adao.dto;
+
+import java.util.List;
+
+public class BookingPageResponse<T> {
+    private List<T> items;
+    // Opaque cursor for the next page, null when this is the last page
+    private String nextCursor;
+
+    public BookingPageResponse(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
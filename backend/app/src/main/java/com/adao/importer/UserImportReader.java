@@ -0,0 +1,219 @@
+package com.adao.importer;
+
+import com.adao.service.UserImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a user import file one record at a time, so the whole file never sits in memory.
+ * CSV files need a header row naming the columns; NDJSON files hold one JSON object per line.
+ */
+public abstract class UserImportReader implements Iterator<UserImportRow>, Closeable {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final BufferedReader reader;
+    private UserImportRow next;
+    private boolean done;
+
+    protected UserImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public static UserImportReader open(InputStream in, String format, ObjectMapper objectMapper) {
+        if (format != null && format.startsWith(CSV)) {
+            return new Csv(in);
+        }
+        if (format != null && format.startsWith(NDJSON)) {
+            return new Ndjson(in, objectMapper);
+        }
+        throw new RuntimeException("Unsupported import format: " + format);
+    }
+
+    /**
+     * Maps a file name to the format it is read as, by extension.
+     */
+    public static String formatOf(String filename) {
+        String name = filename.toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new RuntimeException("Cannot tell the import format of " + filename);
+    }
+
+    protected abstract UserImportRow readNext() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public UserImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        UserImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static class Csv extends UserImportReader {
+
+        private String[] header;
+        private long line;
+
+        Csv(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        protected UserImportRow readNext() throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = new String[names.size()];
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = names.get(i).replace("\uFEFF", "").trim();
+                }
+            }
+
+            long start;
+            List<String> fields;
+            do {
+                start = line + 1;
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != header.length) {
+                return UserImportRow.malformed(start,
+                        "Expected " + header.length + " columns but found " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                values.put(header[i], fields.get(i));
+            }
+            return UserImportRow.of(start, values);
+        }
+
+        // RFC 4180: quoted fields may contain commas, doubled quotes and line breaks
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static class Ndjson extends UserImportReader {
+
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        Ndjson(InputStream in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected UserImportRow readNext() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return UserImportRow.malformed(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return UserImportRow.malformed(line, "Expected a JSON object");
+            }
+            Map<String, String> values = new HashMap<>();
+            node.fields().forEachRemaining(entry -> {
+                if (!entry.getValue().isNull()) {
+                    values.put(entry.getKey(), entry.getValue().asText());
+                }
+            });
+            return UserImportRow.of(line, values);
+        }
+    }
+}
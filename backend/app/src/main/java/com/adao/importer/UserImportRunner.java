@@ -0,0 +1,70 @@
+package com.adao.importer;
+
+import com.adao.service.UserImportResult;
+import com.adao.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Imports users from files named on the command line, for example
+ * {@code java -jar app.jar --spring.main.web-application-type=none --import.cleaners=agency.csv}.
+ * Runs after {@link com.adao.config.DataInitializer} so the roles exist.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class UserImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportRunner.class);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        for (String file : optionValues(args, "import.cleaners")) {
+            importFile(file, true);
+        }
+        for (String file : optionValues(args, "import.customers")) {
+            importFile(file, false);
+        }
+    }
+
+    private void importFile(String file, boolean cleaners) throws IOException {
+        Path path = Paths.get(file);
+        logger.info("Importing {} from {}", cleaners ? "cleaners" : "customers", path.toAbsolutePath());
+        try (UserImportReader reader = UserImportReader.open(Files.newInputStream(path),
+                UserImportReader.formatOf(file), objectMapper)) {
+            UserImportResult result = cleaners
+                    ? userImportService.importCleaners(reader)
+                    : userImportService.importCustomers(reader);
+            for (UserImportResult.RowError error : result.getErrors()) {
+                logger.warn("{}:{} {}", file, error.getLine(), error.getMessage());
+            }
+            if (result.isErrorsTruncated()) {
+                logger.warn("{}: only the first {} failed rows are listed", file, result.getErrors().size());
+            }
+            logger.info("{}: {} imported, {} failed", file, result.getImported(), result.getFailed());
+        }
+    }
+
+    private static List<String> optionValues(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values != null ? values : List.of();
+    }
+}
@@ -1,5 +1,6 @@
 package com.adao.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -31,11 +35,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
             logger.debug("Processing request: {} with JWT: {}", request.getRequestURI(), jwt != null ? "present" : "null");
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.parseJwtClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
                 logger.debug("JWT validation successful for user: {}", username);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = resolvePrincipal(claims);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
                                 null,
@@ -62,6 +67,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                path.startsWith("/uploads/") || path.startsWith("/api/uploads/");
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        UserPrincipal principal = jwtUtils.getPrincipalFromClaims(claims);
+        if (principal != null && revocationRegistry.isCurrent(principal.getId(), claims.getIssuedAt())) {
+            return principal;
+        }
+        // Plain token, or the user changed after it was issued
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
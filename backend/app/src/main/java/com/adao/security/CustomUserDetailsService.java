@@ -2,12 +2,23 @@ package com.adao.security;
 
 import com.adao.entity.User;
 import com.adao.repository.UserRepository;
+import com.adao.service.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -15,23 +26,79 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    @Value("${app.userCache.maxSize:10000}")
+    private long cacheMaxSize;
+
+    @Value("${app.userCache.ttlSeconds:300}")
+    private long cacheTtlSeconds;
+
+    private Cache<String, UserPrincipal> principalsByUsername;
+
+    private Cache<Long, UserPrincipal> principalsById;
+
+    private Timer loadTimer;
+
+    @PostConstruct
+    public void init() {
+        principalsByUsername = newCache();
+        principalsById = newCache();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, principalsByUsername, "userPrincipalsByUsername");
+            CaffeineCacheMetrics.monitor(meterRegistry, principalsById, "userPrincipalsById");
+            loadTimer = Timer.builder("auth.user.load")
+                    .description("Time to resolve a user at login, including cache hits")
+                    .register(meterRegistry);
+        }
+    }
+
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException("User not found with username : " + username)
-                );
+        if (loadTimer == null) {
+            return loadPrincipal(username);
+        }
+        return loadTimer.record(() -> loadPrincipal(username));
+    }
 
-        return UserPrincipal.create(user);
+    private UserPrincipal loadPrincipal(String username) {
+        return principalsByUsername.get(username, key -> {
+            User user = userRepository.findWithRolesByUsername(key)
+                    .orElseThrow(() ->
+                            new UsernameNotFoundException("User not found with username : " + key)
+                    );
+            return UserPrincipal.create(user);
+        });
     }
 
-    @Transactional
     public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id).orElseThrow(
-                () -> new UsernameNotFoundException("User not found with id : " + id)
-        );
+        return principalsById.get(id, key -> {
+            User user = userRepository.findWithRolesById(key).orElseThrow(
+                    () -> new UsernameNotFoundException("User not found with id : " + key)
+            );
+            return UserPrincipal.create(user);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Long userId = event.getUserId();
+        if (userId == null) {
+            principalsByUsername.invalidateAll();
+            principalsById.invalidateAll();
+            return;
+        }
+        principalsById.invalidate(userId);
+        // The username may have changed too, so match cached entries by id
+        principalsByUsername.asMap().values().removeIf(principal -> userId.equals(principal.getId()));
+    }
 
-        return UserPrincipal.create(user);
+    private <K> Cache<K, UserPrincipal> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
     }
 }
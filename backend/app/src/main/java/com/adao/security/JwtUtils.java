@@ -1,15 +1,29 @@
 package com.adao.security;
 
+import com.adao.entity.UserStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
@@ -21,35 +35,126 @@ public class JwtUtils {
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    @Value("${app.jwtCacheSize:10000}")
+    private int jwtCacheSize;
+
+    // Embed id, roles and status in the token so requests need no user lookup
+    @Value("${app.jwtSelfContained:false}")
+    private boolean jwtSelfContained;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    // Recently verified tokens, so repeated requests with the same token skip the HMAC check.
+    // Entries expire with the token itself
+    private Cache<String, Claims> verifiedTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer validTokenTimer;
+
+    private Timer invalidTokenTimer;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return Long.MAX_VALUE;
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        validTokenTimer = validationTimer("valid");
+        invalidTokenTimer = validationTimer("invalid");
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+
+        if (jwtSelfContained) {
+            builder.claim("uid", userPrincipal.getId())
+                    .claim("email", userPrincipal.getEmail())
+                    .claim("status", userPrincipal.getStatus() != null ? userPrincipal.getStatus().name() : null)
+                    .claim("roles", userPrincipal.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .collect(Collectors.toList()));
+        }
+
+        return builder.signWith(signingKey, SignatureAlgorithm.HS512).compact();
+    }
+
+    /**
+     * Rebuilds the principal from a self-contained token, or returns null when the token
+     * does not carry the user's details and the caller has to load the user instead.
+     */
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        if (!jwtSelfContained) {
+            return null;
+        }
+        Long userId = claims.get("uid", Long.class);
+        String status = claims.get("status", String.class);
+        List<?> roles = claims.get("roles", List.class);
+        if (userId == null || status == null || roles == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(
+                userId,
+                claims.getSubject(),
+                claims.get("email", String.class),
+                null,
+                authorities,
+                UserStatus.valueOf(status)
+        );
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
-        logger.debug("Validating JWT token with secret length: {}", jwtSecret.length());
+        return parseJwtClaims(authToken) != null;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null when the token is invalid.
+     */
+    public Claims parseJwtClaims(String authToken) {
+        long start = System.nanoTime();
+        Claims claims = null;
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            logger.debug("JWT token validation successful");
-            return true;
+            claims = verify(authToken);
         } catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -62,10 +167,22 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        Timer timer = claims != null ? validTokenTimer : invalidTokenTimer;
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private Timer validationTimer(String outcome) {
+        return Timer.builder("auth.jwt.validation")
+                .description("Time to verify a JWT, including cache hits")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT string is empty");
+        }
+        return verifiedTokens.get(token, key -> jwtParser.parseClaimsJws(key).getBody());
     }
 }
@@ -0,0 +1,21 @@
+package com.adao.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ownership checks for method security, answered from the authenticated principal alone.
+ * Customers and cleaners share the users id sequence, so a user owns the customer or
+ * cleaner resource whose id equals their own user id.
+ */
+@Component("ownership")
+public class OwnershipChecker {
+
+    public boolean isOwner(Authentication authentication, Long id) {
+        if (authentication == null || id == null) {
+            return false;
+        }
+        return authentication.getPrincipal() instanceof UserPrincipal principal
+                && id.equals(principal.getId());
+    }
+}
@@ -0,0 +1,54 @@
+package com.adao.security;
+
+import com.adao.service.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last changed, so self-contained tokens issued before that moment
+ * are no longer trusted on their own. Entries older than the token lifetime are dropped since
+ * every token they could invalidate has already expired.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    // Tokens from before this process started may predate changes we never saw
+    private final long startedAt = System.currentTimeMillis();
+
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+
+    private volatile long allChangedAt = startedAt;
+
+    @Value("${app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        long now = System.currentTimeMillis();
+        if (event.getUserId() == null) {
+            allChangedAt = now;
+            changedAt.clear();
+        } else {
+            changedAt.put(event.getUserId(), now);
+        }
+        changedAt.values().removeIf(time -> time < now - jwtExpirationMs);
+    }
+
+    public boolean isCurrent(Long userId, Date issuedAt) {
+        if (userId == null || issuedAt == null) {
+            return false;
+        }
+        long issued = issuedAt.getTime();
+        if (issued < allChangedAt) {
+            return false;
+        }
+        Long changed = changedAt.get(userId);
+        return changed == null || issued >= changed;
+    }
+}
@@ -1,6 +1,7 @@
 package com.adao.security;
 
 import com.adao.entity.User;
+import com.adao.entity.UserStatus;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,16 +16,16 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
-    private boolean enabled;
+    private UserStatus status;
 
     public UserPrincipal(Long id, String username, String email, String password, 
-                        Collection<? extends GrantedAuthority> authorities, boolean enabled) {
+                        Collection<? extends GrantedAuthority> authorities, UserStatus status) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
-        this.enabled = enabled;
+        this.status = status;
     }
 
     public static UserPrincipal create(User user) {
@@ -38,7 +39,7 @@ public class UserPrincipal implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 authorities,
-                user.getStatus() == com.adao.entity.UserStatus.ACTIVE
+                user.getStatus()
         );
     }
 
@@ -50,6 +51,10 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public UserStatus getStatus() {
+        return status;
+    }
+
     @Override
     public String getUsername() {
         return username;
@@ -82,6 +87,6 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return enabled;
+        return status == UserStatus.ACTIVE;
     }
 }
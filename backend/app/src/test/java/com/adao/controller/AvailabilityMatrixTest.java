@@ -0,0 +1,105 @@
+package com.adao.controller;
+
+import com.adao.entity.Cleaner;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.Customer;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import com.adao.service.BookingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class AvailabilityMatrixTest {
+
+    private static final int DAYS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void rowsAreBase64BitsetsWithDayZeroInTheLowestBit() throws Exception {
+        Customer customer = customerRepository.save(new Customer("matrix-customer", "matrix-customer@example.com",
+                "secret", "Matrix", "Customer", "1 Test Street"));
+        Cleaner partly = saveCleaner("partly");
+        Cleaner lateBooked = saveCleaner("late");
+        Cleaner free = saveCleaner("free");
+        LocalDate from = LocalDate.now().plusDays(60);
+        book(customer, partly, from.plusDays(1));
+        book(customer, partly, from.plusDays(9));
+        for (int day = 8; day < DAYS; day++) {
+            book(customer, lateBooked, from.plusDays(day));
+        }
+
+        String body = mockMvc.perform(get("/bookings/availability")
+                        .param("cleanerIds", partly.getId() + "," + lateBooked.getId() + "," + free.getId())
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(DAYS - 1).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode rows = objectMapper.readTree(body).get("cleaners");
+
+        // Days 0-11: 1 = free. Bits fill each byte from the least significant end.
+        assertThat(bytes(rows, partly)).containsExactly(0b1111_1101, 0b0000_1101);
+        // Days 8-11 booked: the all-zero last byte is left out
+        assertThat(bytes(rows, lateBooked)).containsExactly(0b1111_1111);
+        assertThat(bytes(rows, free)).containsExactly(0b1111_1111, 0b0000_1111);
+
+        BitSet days = BitSet.valueOf(Base64.getDecoder().decode(rows.get(partly.getId().toString()).asText()));
+        assertThat(days.get(0)).isTrue();
+        assertThat(days.get(1)).isFalse();
+        assertThat(days.get(9)).isFalse();
+        assertThat(days.get(11)).isTrue();
+    }
+
+    private int[] bytes(JsonNode rows, Cleaner cleaner) {
+        byte[] decoded = Base64.getDecoder().decode(rows.get(cleaner.getId().toString()).asText());
+        int[] unsigned = new int[decoded.length];
+        for (int i = 0; i < decoded.length; i++) {
+            unsigned[i] = decoded[i] & 0xff;
+        }
+        return unsigned;
+    }
+
+    private void book(Customer customer, Cleaner cleaner, LocalDate day) {
+        bookingService.createBooking(customer.getId(), cleaner.getId(), day.atTime(10, 0), 2, null, "1 Test Street");
+    }
+
+    private Cleaner saveCleaner(String name) {
+        Cleaner cleaner = new Cleaner("matrix-" + name, "matrix-" + name + "@example.com", "secret",
+                "Matrix", name, "1 Test Street", new BigDecimal("300.00"));
+        cleaner.setCleanerStatus(CleanerStatus.AVAILABLE);
+        return cleanerRepository.save(cleaner);
+    }
+}
@@ -0,0 +1,120 @@
+package com.adao.controller;
+
+import com.adao.entity.Booking;
+import com.adao.entity.BookingStatus;
+import com.adao.entity.Cleaner;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.Customer;
+import com.adao.repository.BookingRepository;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the booking lists against N+1 selects: each listing endpoint must answer with
+ * one statement however many customers and cleaners the bookings reference.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(roles = "ADMIN")
+class BookingListStatementCountTest {
+
+    private static final int BOOKINGS = 24;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Statistics statistics;
+
+    private Customer customer;
+
+    private Cleaner cleaner;
+
+    @BeforeAll
+    void seedBookings() {
+        List<Customer> customers = new ArrayList<>();
+        List<Cleaner> cleaners = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            customers.add(customerRepository.save(new Customer("list-customer" + i, "list-customer" + i + "@example.com",
+                    "secret", "List", "Customer" + i, "1 Test Street")));
+            Cleaner created = new Cleaner("list-cleaner" + i, "list-cleaner" + i + "@example.com", "secret",
+                    "List", "Cleaner" + i, "1 Test Street", new BigDecimal("300.00"));
+            created.setCleanerStatus(CleanerStatus.AVAILABLE);
+            cleaners.add(cleanerRepository.save(created));
+        }
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking(customers.get(i % 4), cleaners.get((i / 4) % 4),
+                    LocalDateTime.of(2030, 1, 1, 9, 0).plusDays(i), 2);
+            booking.setTotalAmount(new BigDecimal("600.00"));
+            booking.setStatus(BookingStatus.PENDING);
+            bookingRepository.save(booking);
+        }
+        customer = customers.get(0);
+        cleaner = cleaners.get(0);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void allBookingsUseOneStatement() throws Exception {
+        mockMvc.perform(get("/bookings")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bookingPageUsesOneStatement() throws Exception {
+        mockMvc.perform(get("/bookings/page").param("size", "10")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void customerBookingsUseOneStatement() throws Exception {
+        mockMvc.perform(get("/bookings/customer/{id}", customer.getId())).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cleanerBookingsUseOneStatement() throws Exception {
+        mockMvc.perform(get("/bookings/cleaner/{id}", cleaner.getId())).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,218 @@
+package com.adao.repository;
+
+import com.adao.entity.Cleaner;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.Customer;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN on a real MySQL that the booking repository queries use the indexes
+ * from V3__booking_indexes.sql. The SQL is the statement Hibernate actually generated for
+ * each repository call, captured with a {@link StatementInspector}. Skipped when Docker is
+ * not available.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingIndexUsageTest {
+
+    private static final int PEOPLE = 40;
+    private static final int BOOKINGS = 8000;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final Pattern BOOKINGS_ALIAS = Pattern.compile("from bookings (\\w+)");
+
+    private static final CapturedSql SQL = new CapturedSql();
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.33");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @TestConfiguration
+    static class CaptureSqlConfiguration {
+
+        @Bean
+        HibernatePropertiesCustomizer captureSql() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, SQL);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final List<Long> cleanerIds = new ArrayList<>();
+
+    private Long customerId;
+
+    @BeforeAll
+    void seedBookings() {
+        List<Long> customerIds = new ArrayList<>();
+        for (int i = 0; i < PEOPLE; i++) {
+            Cleaner cleaner = new Cleaner("explain-cleaner" + i, "explain-cleaner" + i + "@example.com", "secret",
+                    "Explain", "Cleaner" + i, "1 Test Street", new BigDecimal("300.00"));
+            cleaner.setCleanerStatus(CleanerStatus.AVAILABLE);
+            cleanerIds.add(cleanerRepository.save(cleaner).getId());
+            customerIds.add(customerRepository.save(new Customer("explain-customer" + i, "explain-customer" + i + "@example.com",
+                    "secret", "Explain", "Customer" + i, "1 Test Street")).getId());
+        }
+
+        // Two years of bookings, mostly completed, with a few pending and cancelled ones
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            String status = i % 33 == 0 ? "PENDING" : i % 17 == 0 ? "CANCELLED" : "COMPLETED";
+            rows.add(new Object[]{cleanerIds.get(i % PEOPLE), customerIds.get((i / PEOPLE) % PEOPLE),
+                    Timestamp.valueOf(FIRST_DAY.plusHours(i * 2L)), 2, new BigDecimal("600.00"), status,
+                    Timestamp.valueOf(FIRST_DAY)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (cleaner_id, customer_id, booking_date, duration_hours, " +
+                "total_amount, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE TABLE bookings");
+
+        customerId = customerIds.get(0);
+    }
+
+    @Test
+    void activeSlotScanUsesBookingDateIndex() {
+        LocalDateTime from = FIRST_DAY.plusDays(640);
+        Plan plan = explain(() -> bookingRepository.findActiveBookingSlotsFrom(from), from);
+        assertThat(plan.bookingsKey()).isEqualTo("idx_bookings_booking_date");
+    }
+
+    @Test
+    void perDayCountsUseCleanerDateIndex() {
+        List<Long> cleaners = cleanerIds.subList(0, 3);
+        LocalDateTime start = FIRST_DAY.plusDays(200);
+        LocalDateTime end = start.plusDays(30);
+        Plan plan = explain(() -> bookingRepository.countCleanerBookingsPerDay(cleaners, start, end),
+                cleaners.get(0), cleaners.get(1), cleaners.get(2), start, end);
+        assertThat(plan.bookingsKey()).isEqualTo("idx_bookings_cleaner_date_status");
+    }
+
+    @Test
+    void customerListingUsesCustomerDateIndex() {
+        Plan plan = explain(() -> bookingRepository.findSummariesByCustomerId(customerId), customerId);
+        assertThat(plan.bookingsKey()).isEqualTo("idx_bookings_customer_date");
+        plan.assertJoinsByPrimaryKey();
+    }
+
+    @Test
+    void cleanerListingUsesCleanerDateIndex() {
+        Long cleanerId = cleanerIds.get(0);
+        Plan plan = explain(() -> bookingRepository.findSummariesByCleanerId(cleanerId), cleanerId);
+        assertThat(plan.bookingsKey()).isEqualTo("idx_bookings_cleaner_date_status");
+        plan.assertJoinsByPrimaryKey();
+    }
+
+    @Test
+    void firstPageReadsBookingDateIndexInOrder() {
+        Plan plan = explain(() -> bookingRepository.findFirstPageOrderByBookingDate(PageRequest.of(0, 50)), 0, 50);
+        assertThat(plan.bookingsKey()).isEqualTo("idx_bookings_booking_date");
+        assertThat(plan.extras()).doesNotContain("Using filesort");
+        plan.assertJoinsByPrimaryKey();
+    }
+
+    @Test
+    void keysetPageUsesBookingDateIndex() {
+        LocalDateTime after = FIRST_DAY.plusDays(600);
+        Plan plan = explain(() -> bookingRepository.findPageAfterOrderByBookingDate(after, 0L, PageRequest.of(0, 50)),
+                after, after, 0L, 0, 50);
+        assertThat(plan.bookingsKey()).isEqualTo("idx_bookings_booking_date");
+        assertThat(plan.extras()).doesNotContain("Using filesort");
+        plan.assertJoinsByPrimaryKey();
+    }
+
+    // Runs the repository call, then EXPLAINs the select it sent with the same values bound in order
+    private Plan explain(Runnable query, Object... args) {
+        SQL.statements.clear();
+        query.run();
+        String sql = SQL.statements.stream()
+                .filter(statement -> statement.startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        Matcher alias = BOOKINGS_ALIAS.matcher(sql);
+        assertThat(alias.find()).as(sql).isTrue();
+        return new Plan(sql, alias.group(1), jdbcTemplate.queryForList("EXPLAIN " + sql, args));
+    }
+
+    private record Plan(String sql, String bookingsAlias, List<Map<String, Object>> rows) {
+
+        String bookingsKey() {
+            return rows.stream()
+                    .filter(row -> bookingsAlias.equals(row.get("table")))
+                    .map(row -> (String) row.get("key"))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        String extras() {
+            return rows.stream().map(row -> String.valueOf(row.get("Extra"))).toList().toString();
+        }
+
+        // The customer, cleaner and user rows behind each booking are single primary key lookups
+        void assertJoinsByPrimaryKey() {
+            rows.stream()
+                    .filter(row -> !bookingsAlias.equals(row.get("table")))
+                    .forEach(row -> {
+                        assertThat(row.get("type")).as(sql).isIn("eq_ref", "const");
+                        assertThat(row.get("key")).as(sql).isEqualTo("PRIMARY");
+                    });
+        }
+    }
+
+    static class CapturedSql implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
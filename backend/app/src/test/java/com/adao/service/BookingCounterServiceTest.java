@@ -0,0 +1,144 @@
+package com.adao.service;
+
+import com.adao.entity.Booking;
+import com.adao.entity.BookingStatus;
+import com.adao.entity.Cleaner;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.CounterScope;
+import com.adao.entity.Customer;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingCounterServiceTest {
+
+    private static final int FLIPS = 40;
+
+    @Autowired
+    private BookingCounterService counterService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allScopeIsTheSumOfTheCleanerRows() {
+        counterService.reconcile();
+        Map<BookingStatus, Long> before = totals(CounterScope.ALL, null);
+
+        Customer customer = saveCustomer("sum");
+        LocalDateTime day = LocalDate.now().plusDays(40).atTime(9, 0);
+        bookingService.createBooking(customer.getId(), saveCleaner("sum-a").getId(), day, 2, null, "1 Test Street");
+        Booking second = bookingService.createBooking(customer.getId(), saveCleaner("sum-b").getId(), day, 3, null, "1 Test Street");
+        bookingService.confirmBooking(second.getId());
+
+        Map<BookingStatus, Long> after = totals(CounterScope.ALL, null);
+        assertThat(after.getOrDefault(BookingStatus.PENDING, 0L) - before.getOrDefault(BookingStatus.PENDING, 0L)).isEqualTo(1);
+        assertThat(after.getOrDefault(BookingStatus.CONFIRMED, 0L) - before.getOrDefault(BookingStatus.CONFIRMED, 0L)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM booking_counters WHERE scope = 'ALL'", Long.class)).isZero();
+        assertThat(counterService.reconcile()).isZero();
+    }
+
+    @Test
+    void oppositeStatusChangesRunInParallelWithoutDeadlock() throws Exception {
+        Customer customer = saveCustomer("flip");
+        Cleaner cleaner = saveCleaner("flip");
+        LocalDateTime first = LocalDate.now().plusMonths(3).withDayOfMonth(1).atTime(9, 0);
+        Long up = bookingService.createBooking(customer.getId(), cleaner.getId(), first, 2, null, "1 Test Street").getId();
+        Long down = bookingService.createBooking(customer.getId(), cleaner.getId(), first.plusDays(1), 2, null, "1 Test Street").getId();
+        bookingService.confirmBooking(down);
+
+        // One booking goes PENDING -> CONFIRMED while the other goes CONFIRMED -> PENDING, and back
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> runs = List.of(
+                    pool.submit(() -> flip(start, up, BookingStatus.CONFIRMED, BookingStatus.PENDING)),
+                    pool.submit(() -> flip(start, down, BookingStatus.PENDING, BookingStatus.CONFIRMED)));
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<BookingStatus, Long> cleanerTotals = totals(CounterScope.CLEANER, cleaner.getId());
+        assertThat(cleanerTotals.get(BookingStatus.PENDING)).isEqualTo(1);
+        assertThat(cleanerTotals.get(BookingStatus.CONFIRMED)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileRepairsDriftWithIncrements() {
+        Customer customer = saveCustomer("drift");
+        Cleaner cleaner = saveCleaner("drift");
+        bookingService.createBooking(customer.getId(), cleaner.getId(), LocalDate.now().plusDays(50).atTime(9, 0),
+                2, null, "1 Test Street");
+        counterService.reconcile();
+
+        jdbcTemplate.update("UPDATE booking_counters SET booking_count = booking_count + 5 " +
+                "WHERE scope = 'CLEANER' AND scope_id = ?", cleaner.getId());
+        jdbcTemplate.update("DELETE FROM booking_counters WHERE scope = 'CUSTOMER' AND scope_id = ?", customer.getId());
+
+        assertThat(counterService.reconcile()).isEqualTo(2);
+        assertThat(totals(CounterScope.CLEANER, cleaner.getId())).containsEntry(BookingStatus.PENDING, 1L);
+        assertThat(totals(CounterScope.CUSTOMER, customer.getId())).containsEntry(BookingStatus.PENDING, 1L);
+        assertThat(counterService.reconcile()).isZero();
+    }
+
+    private Void flip(CountDownLatch start, Long bookingId, BookingStatus to, BookingStatus back) throws InterruptedException {
+        start.await();
+        for (int i = 0; i < FLIPS; i++) {
+            bookingService.updateBookingStatus(bookingId, i % 2 == 0 ? to : back);
+        }
+        return null;
+    }
+
+    private Map<BookingStatus, Long> totals(CounterScope scope, Long scopeId) {
+        Map<BookingStatus, Long> totals = new HashMap<>();
+        for (Object[] row : counterService.getTotalsByStatus(scope, scopeId)) {
+            totals.put((BookingStatus) row[0], ((Number) row[1]).longValue());
+        }
+        return totals;
+    }
+
+    private Cleaner saveCleaner(String name) {
+        Cleaner cleaner = new Cleaner("counter-" + name, "counter-" + name + "@example.com", "secret",
+                "Counter", name, "1 Test Street", new BigDecimal("300.00"));
+        cleaner.setCleanerStatus(CleanerStatus.AVAILABLE);
+        return cleanerRepository.save(cleaner);
+    }
+
+    private Customer saveCustomer(String name) {
+        return customerRepository.save(new Customer("counter-customer-" + name, "counter-customer-" + name + "@example.com",
+                "secret", "Counter", name, "1 Test Street"));
+    }
+}
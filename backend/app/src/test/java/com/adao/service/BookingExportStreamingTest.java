@@ -0,0 +1,120 @@
+package com.adao.service;
+
+import com.adao.entity.Cleaner;
+import com.adao.entity.Customer;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports about half a million wide bookings from a real MySQL and checks that heap use stays
+ * flat while the rows go by. Buffered by the driver, the same result set takes several hundred MB.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingExportStreamingTest {
+
+    private static final int SEED_ROWS = 1_000;
+    private static final int DOUBLINGS = 9;
+    private static final long ROWS = (long) SEED_ROWS << DOUBLINGS;
+    private static final int SAMPLE_EVERY = 25_000;
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.33")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+    }
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedBookings() {
+        Cleaner cleaner = cleanerRepository.save(new Cleaner("export-cleaner", "export-cleaner@example.com", "secret",
+                "Export", "Cleaner", "1 Test Street", new BigDecimal("300.00")));
+        Customer customer = customerRepository.save(new Customer("export-customer", "export-customer@example.com",
+                "secret", "Export", "Customer", "1 Test Street"));
+
+        // Both text columns filled to their 255 characters so each row is around half a kilobyte
+        String address = "A".repeat(255);
+        String instructions = "I".repeat(255);
+        List<Object[]> rows = new ArrayList<>(SEED_ROWS);
+        for (int i = 0; i < SEED_ROWS; i++) {
+            rows.add(new Object[]{cleaner.getId(), customer.getId(), Timestamp.valueOf(FIRST_DAY.plusHours(i)), 2,
+                    new BigDecimal("600.00"), "COMPLETED", address, instructions, Timestamp.valueOf(FIRST_DAY)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (cleaner_id, customer_id, booking_date, duration_hours, " +
+                "total_amount, status, service_address, special_instructions, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        for (int i = 0; i < DOUBLINGS; i++) {
+            jdbcTemplate.update("INSERT INTO bookings (cleaner_id, customer_id, booking_date, duration_hours, " +
+                    "total_amount, status, service_address, special_instructions, created_at) " +
+                    "SELECT cleaner_id, customer_id, booking_date + INTERVAL ? DAY, duration_hours, total_amount, " +
+                    "status, service_address, special_instructions, created_at FROM bookings", 50 << i);
+        }
+    }
+
+    @Test
+    void exportKeepsHeapFlatWhileStreaming() {
+        List<String> columns = List.of("id", "bookingDate", "serviceAddress", "specialInstructions",
+                "customerEmail", "cleanerLastName");
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+
+        AtomicLong exported = new AtomicLong();
+        AtomicLong peakGrowth = new AtomicLong();
+        bookingExportService.exportBookings(FIRST_DAY.toLocalDate(), LocalDate.of(2099, 12, 31), columns, row -> {
+            if (exported.incrementAndGet() % SAMPLE_EVERY == 0) {
+                System.gc();
+                long used = runtime.totalMemory() - runtime.freeMemory();
+                peakGrowth.accumulateAndGet(used - baseline, Math::max);
+            }
+        });
+
+        assertThat(exported.get()).isEqualTo(ROWS);
+        assertThat(peakGrowth.get()).isLessThan(MAX_HEAP_GROWTH);
+    }
+}
@@ -0,0 +1,154 @@
+package com.adao.service;
+
+import com.adao.entity.Cleaner;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.Customer;
+import com.adao.repository.BookingRepository;
+import com.adao.repository.BookingSlotRepository;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @SpyBean
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSlotRepository bookingSlotRepository;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void parallelBookingsForOneCleanerAndDayAdmitExactlyOne() throws Exception {
+        Cleaner cleaner = saveCleaner("race");
+        LocalDateTime bookingDate = LocalDate.now().plusDays(7).atTime(10, 0);
+
+        assertThat(raceForOneDay(cleaner, bookingDate, "race")).isEqualTo(1);
+
+        assertThat(bookingSlotRepository.existsByCleanerIdAndSlotDate(cleaner.getId(), bookingDate.toLocalDate())).isTrue();
+        assertThat(slotRowsFor(cleaner)).isEqualTo(1);
+        assertThat(bookingRepository.findSummariesByCleanerId(cleaner.getId())).hasSize(1);
+        assertThat(availabilityIndex.isAvailable(cleaner.getId(), bookingDate.toLocalDate())).isFalse();
+    }
+
+    @Test
+    void parallelBookingsPastTheIndexAdmitExactlyOne() throws Exception {
+        Cleaner cleaner = saveCleaner("slotrace");
+        LocalDateTime bookingDate = LocalDate.now().plusDays(9).atTime(10, 0);
+        // As if every request reached a different instance: each index lets its booking through
+        doReturn(true).when(availabilityIndex).tryOccupy(any(), any());
+
+        assertThat(raceForOneDay(cleaner, bookingDate, "slotrace")).isEqualTo(1);
+
+        assertThat(slotRowsFor(cleaner)).isEqualTo(1);
+        assertThat(bookingRepository.findSummariesByCleanerId(cleaner.getId())).hasSize(1);
+    }
+
+    @Test
+    void slotTableRejectsADayTheIndexMissed() {
+        Cleaner cleaner = saveCleaner("stale");
+        Customer first = saveCustomer("stale1");
+        Customer second = saveCustomer("stale2");
+        LocalDateTime bookingDate = LocalDate.now().plusDays(8).atTime(9, 0);
+
+        bookingService.createBooking(first.getId(), cleaner.getId(), bookingDate, 2, null, "1 Test Street");
+        // Simulate another instance whose index has not seen the first booking
+        availabilityIndex.release(cleaner.getId(), bookingDate.toLocalDate());
+        assertThat(availabilityIndex.isAvailable(cleaner.getId(), bookingDate.toLocalDate())).isTrue();
+
+        assertThatThrownBy(() -> bookingService.createBooking(
+                second.getId(), cleaner.getId(), bookingDate.withHour(14), 2, null, "2 Test Street"))
+                .hasMessage("Cleaner is not available on the selected day");
+        assertThat(bookingRepository.findSummariesByCleanerId(cleaner.getId())).hasSize(1);
+    }
+
+    // Books the same cleaner and day from THREADS customers at once; returns how many were admitted
+    private int raceForOneDay(Cleaner cleaner, LocalDateTime bookingDate, String name) throws Exception {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            customers.add(saveCustomer(name + i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (Customer customer : customers) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.createBooking(customer.getId(), cleaner.getId(), bookingDate, 2, null, "1 Test Street");
+                        return true;
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessage("Cleaner is not available on the selected day");
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get(30, TimeUnit.SECONDS)) {
+                    admitted++;
+                }
+            }
+            return admitted;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long slotRowsFor(Cleaner cleaner) {
+        return bookingSlotRepository.findAll().stream()
+                .filter(slot -> slot.getCleanerId().equals(cleaner.getId()))
+                .count();
+    }
+
+    private Cleaner saveCleaner(String name) {
+        Cleaner cleaner = new Cleaner(name + "-cleaner", name + "-cleaner@example.com", "secret",
+                "Test", "Cleaner", "1 Test Street", new BigDecimal("250.00"));
+        cleaner.setCleanerStatus(CleanerStatus.AVAILABLE);
+        return cleanerRepository.save(cleaner);
+    }
+
+    private Customer saveCustomer(String name) {
+        return customerRepository.save(new Customer(name + "-customer", name + "-customer@example.com", "secret",
+                "Test", "Customer", "1 Test Street"));
+    }
+}
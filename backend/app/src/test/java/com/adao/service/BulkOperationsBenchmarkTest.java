@@ -0,0 +1,148 @@
+package com.adao.service;
+
+import com.adao.entity.Cleaner;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.Customer;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 100k-row benchmark of the bulk paths: batched cleaner inserts, the set-based status
+ * migration and the set-based cascade delete of a cleaner's bookings, on MySQL.
+ * Run with {@code mvn test -Dtest=BulkOperationsBenchmarkTest -Dbenchmark=true}; needs Docker.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BulkOperationsBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOperationsBenchmarkTest.class);
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.33")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+    }
+
+    @Autowired
+    private CleanerService cleanerService;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Order(1)
+    void insertsCleanersInJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += CHUNK) {
+            List<Cleaner> chunk = new ArrayList<>(CHUNK);
+            for (int i = offset; i < offset + CHUNK; i++) {
+                Cleaner cleaner = new Cleaner("bench" + i, "bench" + i + "@example.com", "secret",
+                        "Bench", "Cleaner" + i, "1 Test Street", new BigDecimal("300.00"));
+                cleaner.setCleanerStatus(CleanerStatus.PENDING_APPROVAL);
+                chunk.add(cleaner);
+            }
+            transactionTemplate.executeWithoutResult(status -> cleanerRepository.saveAll(chunk));
+        }
+        report("insert cleaners, batched", start);
+
+        assertThat(cleanerRepository.count()).isGreaterThanOrEqualTo(ROWS);
+        // Unbatched, every cleaner costs two statements (users and cleaners rows)
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROWS / 10);
+    }
+
+    @Test
+    @Order(2)
+    void migratesPendingCleanersWithOneUpdate() {
+        long start = System.nanoTime();
+        int migrated = cleanerService.migratePendingToAvailable();
+        report("migrate pending cleaners, set-based", start);
+
+        assertThat(migrated).isGreaterThanOrEqualTo(ROWS);
+    }
+
+    @Test
+    @Order(3)
+    void deletesACleanersBookingsWithOneStatement() {
+        Cleaner cleaner = cleanerRepository.save(new Cleaner("bench-busy", "bench-busy@example.com", "secret",
+                "Bench", "Busy", "1 Test Street", new BigDecimal("300.00")));
+        Customer customer = customerRepository.save(new Customer("bench-customer", "bench-customer@example.com",
+                "secret", "Bench", "Customer", "1 Test Street"));
+
+        LocalDateTime first = LocalDateTime.of(2020, 1, 1, 9, 0);
+        for (int offset = 0; offset < ROWS; offset += CHUNK) {
+            List<Object[]> rows = new ArrayList<>(CHUNK);
+            for (int i = offset; i < offset + CHUNK; i++) {
+                rows.add(new Object[]{cleaner.getId(), customer.getId(), Timestamp.valueOf(first.plusHours(i)),
+                        2, new BigDecimal("600.00"), "COMPLETED", Timestamp.valueOf(first)});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO bookings (cleaner_id, customer_id, booking_date, duration_hours, " +
+                    "total_amount, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+
+        long start = System.nanoTime();
+        cleanerService.deleteCleaner(cleaner.getId());
+        report("delete cleaner with bookings, set-based", start);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bookings WHERE cleaner_id = ?",
+                Long.class, cleaner.getId())).isZero();
+    }
+
+    private static void report(String operation, long startNanos) {
+        logger.info("{} x {}: {} ms", operation, ROWS, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,91 @@
+package com.adao.service;
+
+import com.adao.entity.Cleaner;
+import com.adao.projection.CleanerSummary;
+import com.adao.repository.CleanerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CleanerSearchIndexTest {
+
+    @Autowired
+    private CleanerSearchIndex searchIndex;
+
+    @Autowired
+    private CleanerService cleanerService;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Test
+    void singleCleanerChangeReachesSearchesAfterBackgroundRebuild() throws Exception {
+        Cleaner cleaner = saveCleaner("rebuild", "Rebuildville");
+        cleanerService.cleanerChanged(cleaner.getId());
+        awaitRates("Rebuildville", List.of(new BigDecimal("300.00")));
+
+        cleanerService.updateCleanerRate(cleaner.getId(), new BigDecimal("450.00"));
+        awaitRates("Rebuildville", List.of(new BigDecimal("450.00")));
+        assertThat(searchIndex.getSummary(cleaner.getId())).get()
+                .extracting(CleanerSummary::getHourlyRate).isEqualTo(new BigDecimal("450.00"));
+    }
+
+    @Test
+    void fullReloadPicksUpCleanersChangedInBulk() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            saveCleaner("bulk" + i, "Reloadburg");
+        }
+        cleanerService.cleanerChanged(null);
+        awaitRates("Reloadburg", Collections.nCopies(5, new BigDecimal("300.00")));
+    }
+
+    @Test
+    void registeredCleanerIsSearchableAndPictureChangesShowUp() throws Exception {
+        Cleaner cleaner = new Cleaner("index-registered", "index-registered@example.com", "secret",
+                "Index", "Registered", "1 Test Street", new BigDecimal("300.00"));
+        cleaner.setCity("Signupton");
+        Long id = cleanerService.createCleaner(cleaner).getId();
+        awaitRates("Signupton", List.of(new BigDecimal("300.00")));
+
+        cleanerService.updateProfilePicture(id, "http://localhost/uploads/new-avatar.jpg");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"http://localhost/uploads/new-avatar.jpg".equals(pictureOf(id)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(pictureOf(id)).isEqualTo("http://localhost/uploads/new-avatar.jpg");
+    }
+
+    private String pictureOf(Long cleanerId) {
+        return searchIndex.getSummary(cleanerId).map(CleanerSummary::getProfilePicture).orElse(null);
+    }
+
+    private Cleaner saveCleaner(String name, String city) {
+        Cleaner cleaner = new Cleaner("index-" + name, "index-" + name + "@example.com", "secret",
+                "Index", name, "1 Test Street", new BigDecimal("300.00"));
+        cleaner.setCity(city);
+        return cleanerRepository.save(cleaner);
+    }
+
+    private void awaitRates(String city, List<BigDecimal> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            List<BigDecimal> rates = searchIndex.search(city, null, null, null, null, false, 0, 50).getItems().stream()
+                    .map(CleanerSummary::getHourlyRate)
+                    .toList();
+            if (rates.equals(expected) || System.currentTimeMillis() > deadline) {
+                assertThat(rates).isEqualTo(expected);
+                return;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.adao.service;
+
+import com.adao.entity.Customer;
+import com.adao.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfilePhotoServiceTest {
+
+    private final Random random = new Random();
+
+    @Autowired
+    private ProfilePhotoService profilePhotoService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void slowEarlierUploadDoesNotReplaceNewerPhoto() throws Exception {
+        Customer customer = customerRepository.save(new Customer("photo-customer", "photo-customer@example.com",
+                "secret", "Photo", "Customer", "1 Test Street"));
+        Long id = customer.getId();
+        // Random pixels keep both pictures new to the blob store on every run
+        byte[] small = png(300, 300);
+        byte[] large = png(1600, 1600);
+
+        long processed = processedCount();
+        String smallUrl = profilePhotoService.processCustomerPhoto(id, new ByteArrayInputStream(small));
+        awaitProcessed(processed + 1);
+        assertThat(pictureOf(id)).isEqualTo(smallUrl);
+
+        // The large picture is queued first, then the small one comes back from the store at once
+        processed = processedCount();
+        String largeUrl = profilePhotoService.processCustomerPhoto(id, new ByteArrayInputStream(large));
+        assertThat(profilePhotoService.processCustomerPhoto(id, new ByteArrayInputStream(small))).isEqualTo(smallUrl);
+        awaitProcessed(processed + 1);
+
+        assertThat(largeUrl).isNotEqualTo(smallUrl);
+        assertThat(pictureOf(id)).isEqualTo(smallUrl);
+    }
+
+    @Test
+    void photoUpdateLeavesOtherProfileFieldsAlone() throws Exception {
+        Customer customer = customerRepository.save(new Customer("photo-editor", "photo-editor@example.com",
+                "secret", "Photo", "Editor", "1 Test Street"));
+        Long id = customer.getId();
+
+        long processed = processedCount();
+        String url = profilePhotoService.processCustomerPhoto(id, new ByteArrayInputStream(png(1600, 1600)));
+        // Edited while the photo is still being processed
+        Customer edited = customerRepository.findById(id).orElseThrow();
+        edited.setFirstName("Renamed");
+        customerRepository.save(edited);
+        awaitProcessed(processed + 1);
+
+        Customer result = customerRepository.findById(id).orElseThrow();
+        assertThat(result.getProfilePicture()).isEqualTo(url);
+        assertThat(result.getFirstName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void uploadThatIsNotAnImageIsRefusedBeforeQueueing() {
+        Customer customer = customerRepository.save(new Customer("photo-text", "photo-text@example.com",
+                "secret", "Photo", "Text", "1 Test Street"));
+        double unreadable = meterRegistry.counter("uploads", "outcome", "unreadable").count();
+
+        assertThatThrownBy(() -> profilePhotoService.processCustomerPhoto(customer.getId(),
+                new ByteArrayInputStream("not a picture".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(meterRegistry.counter("uploads", "outcome", "unreadable").count()).isEqualTo(unreadable + 1);
+        assertThat(pictureOf(customer.getId())).isNull();
+    }
+
+    private String pictureOf(Long customerId) {
+        return customerRepository.findById(customerId).orElseThrow().getProfilePicture();
+    }
+
+    private long processedCount() {
+        return meterRegistry.find("uploads.processing").tag("outcome", "processed").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private void awaitProcessed(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (processedCount() < count) {
+            assertThat(System.currentTimeMillis()).as("photo processing timed out").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
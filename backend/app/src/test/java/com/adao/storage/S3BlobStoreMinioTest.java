@@ -0,0 +1,107 @@
+package com.adao.storage;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round-trips blobs through {@link S3BlobStore} against a MinIO server, so a signing mistake shows
+ * up as a 403 from a real S3 implementation. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3BlobStoreMinioTest {
+
+    private static final String REGION = "us-east-1";
+    private static final String BUCKET = "photos";
+    private static final String EMPTY_PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    @Container
+    static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+
+    @TempDir
+    Path workDir;
+
+    @BeforeAll
+    static void createBucket() throws Exception {
+        HttpResponse<String> response = HTTP.send(signed("PUT", "/" + BUCKET)
+                .PUT(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+    }
+
+    @Test
+    void putStoresTheFileWithImmutableCaching() throws Exception {
+        S3BlobStore store = store();
+        Path file = Files.writeString(workDir.resolve("avatar.tmp"), "avatar bytes");
+
+        store.put("0123abcd-avatar.jpg", file, "image/jpeg");
+
+        assertThat(file).doesNotExist();
+        assertThat(store.exists("0123abcd-avatar.jpg")).isTrue();
+        HttpResponse<String> response = HTTP.send(signed("GET", "/" + BUCKET + "/0123abcd-avatar.jpg").GET().build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("avatar bytes");
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("image/jpeg");
+        assertThat(response.headers().firstValue("Cache-Control")).hasValue("public, max-age=31536000, immutable");
+    }
+
+    @Test
+    void existsAndDeleteFollowTheBucket() throws Exception {
+        S3BlobStore store = store();
+        assertThat(store.exists("4567cdef-thumb.jpg")).isFalse();
+
+        store.put("4567cdef-thumb.jpg", Files.writeString(workDir.resolve("thumb.tmp"), "thumb"), "image/jpeg");
+        assertThat(store.exists("4567cdef-thumb.jpg")).isTrue();
+
+        store.delete("4567cdef-thumb.jpg");
+        assertThat(store.exists("4567cdef-thumb.jpg")).isFalse();
+        // Deleting a missing blob is not an error
+        store.delete("4567cdef-thumb.jpg");
+    }
+
+    @Test
+    void urlPointsIntoTheBucket() {
+        assertThat(store().url("0123abcd-avatar.jpg"))
+                .isEqualTo(MINIO.getS3URL() + "/" + BUCKET + "/0123abcd-avatar.jpg");
+    }
+
+    private static S3BlobStore store() {
+        return new S3BlobStore(MINIO.getS3URL(), REGION, BUCKET, MINIO.getUserName(), MINIO.getPassword(), true, "");
+    }
+
+    // Requests the store itself does not make, signed with the same code
+    private static HttpRequest.Builder signed(String method, String path) {
+        URI uri = URI.create(MINIO.getS3URL() + path);
+        String amzDate = ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE);
+        Map<String, String> headers = new TreeMap<>();
+        headers.put("host", uri.getRawAuthority());
+        headers.put("x-amz-content-sha256", EMPTY_PAYLOAD_HASH);
+        headers.put("x-amz-date", amzDate);
+        return HttpRequest.newBuilder(uri)
+                .header("x-amz-content-sha256", EMPTY_PAYLOAD_HASH)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", S3BlobStore.authorization(method, uri.getRawPath(), "", headers,
+                        EMPTY_PAYLOAD_HASH, amzDate, REGION, MINIO.getUserName(), MINIO.getPassword()));
+    }
+}
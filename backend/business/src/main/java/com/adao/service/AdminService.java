@@ -50,11 +50,14 @@ public class AdminService {
     }
     
     public Admin updateAdmin(Admin admin) {
-        return adminRepository.save(admin);
+        Admin saved = adminRepository.save(admin);
+        userService.userChanged(saved.getId());
+        return saved;
     }
     
     public void deleteAdmin(Long id) {
         adminRepository.deleteById(id);
+        userService.userChanged(id);
     }
     
     public Admin updateAdminLevel(Long adminId, AdminLevel adminLevel) {
@@ -0,0 +1,136 @@
+package com.adao.service;
+
+import com.adao.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory occupancy calendar: for every cleaner, the days (as epoch days) that already
+ * carry a non-cancelled booking, with a count so legacy double bookings release correctly.
+ * Warmed from the bookings table at startup and kept current by {@link BookingService}.
+ * Only today and later are tracked; past days are dropped nightly, so callers asking
+ * about an earlier day must check booking_slots instead.
+ */
+@Component
+public class BookingAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingAvailabilityIndex.class);
+
+    private final Map<Long, Map<Long, Integer>> occupiedDays = new ConcurrentHashMap<>();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @PostConstruct
+    public void warmUp() {
+        occupiedDays.clear();
+        List<Object[]> slots = bookingRepository.findActiveBookingSlotsFrom(LocalDate.now().atStartOfDay());
+        for (Object[] slot : slots) {
+            increment((Long) slot[0], ((LocalDateTime) slot[1]).toLocalDate());
+        }
+        logger.info("Booking availability index warmed with {} bookings for {} cleaners", slots.size(), occupiedDays.size());
+    }
+
+    @Scheduled(cron = "${app.availability.evictCron:0 5 0 * * *}")
+    public void evictPastDays() {
+        long today = LocalDate.now().toEpochDay();
+        int[] evicted = new int[1];
+        for (Map<Long, Integer> days : occupiedDays.values()) {
+            days.keySet().removeIf(epochDay -> {
+                boolean past = epochDay < today;
+                if (past) {
+                    evicted[0]++;
+                }
+                return past;
+            });
+        }
+        logger.info("Dropped {} past days from the booking availability index", evicted[0]);
+    }
+
+    public boolean isTracked(LocalDate day) {
+        return !day.isBefore(LocalDate.now());
+    }
+
+    public boolean isAvailable(Long cleanerId, LocalDate day) {
+        Map<Long, Integer> days = occupiedDays.get(cleanerId);
+        return days == null || !days.containsKey(day.toEpochDay());
+    }
+
+    /**
+     * Atomically claims the day for the cleaner. Returns false if the day is already taken.
+     * The claim is rolled back automatically if the surrounding transaction does not commit.
+     */
+    public boolean tryOccupy(Long cleanerId, LocalDate day) {
+        boolean[] claimed = new boolean[1];
+        occupiedDays.computeIfAbsent(cleanerId, id -> new ConcurrentHashMap<>())
+                .compute(day.toEpochDay(), (epochDay, count) -> {
+                    if (count != null) {
+                        return count;
+                    }
+                    claimed[0] = true;
+                    return 1;
+                });
+        if (claimed[0]) {
+            onRollback(() -> decrement(cleanerId, day));
+        }
+        return claimed[0];
+    }
+
+    public void release(Long cleanerId, LocalDate day) {
+        afterCommit(() -> decrement(cleanerId, day));
+    }
+
+    public void removeCleaner(Long cleanerId) {
+        afterCommit(() -> occupiedDays.remove(cleanerId));
+    }
+
+    private void increment(Long cleanerId, LocalDate day) {
+        occupiedDays.computeIfAbsent(cleanerId, id -> new ConcurrentHashMap<>())
+                .merge(day.toEpochDay(), 1, Integer::sum);
+    }
+
+    private void decrement(Long cleanerId, LocalDate day) {
+        Map<Long, Integer> days = occupiedDays.get(cleanerId);
+        if (days != null) {
+            days.computeIfPresent(day.toEpochDay(), (epochDay, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.adao.service;
+
+import com.adao.entity.Booking;
+import com.adao.entity.BookingCounter;
+import com.adao.entity.BookingStatus;
+import com.adao.entity.CounterScope;
+import com.adao.repository.BookingCounterRepository;
+import com.adao.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps booking_counters in step with the bookings table. Every write goes through an
+ * atomic upsert in the caller's transaction, so "completed earnings this month" is a
+ * single-row read. Only the CLEANER and CUSTOMER scopes are stored; ALL totals are summed from
+ * the cleaner rows, so no row is shared by every booking write. {@link #reconcile()} verifies
+ * the counters against a full scan.
+ */
+@Service
+@Transactional
+public class BookingCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingCounterService.class);
+
+    private static final Long ALL_SCOPE_ID = 0L;
+
+    // Every transaction takes counter rows in this order, so concurrent booking writes cannot deadlock on them
+    private static final Comparator<CounterKey> LOCK_ORDER = Comparator.comparing(CounterKey::scope)
+            .thenComparing(CounterKey::scopeId)
+            .thenComparing(CounterKey::status)
+            .thenComparing(CounterKey::period);
+
+    @Autowired
+    private BookingCounterRepository counterRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    public void recordCreated(Booking booking) {
+        Map<CounterKey, BookingCounter> changes = new TreeMap<>(LOCK_ORDER);
+        add(changes, booking, booking.getStatus(), 1);
+        applyChanges(changes);
+    }
+
+    public void recordStatusChange(Booking booking, BookingStatus from, BookingStatus to) {
+        if (from != to) {
+            Map<CounterKey, BookingCounter> changes = new TreeMap<>(LOCK_ORDER);
+            add(changes, booking, from, -1);
+            add(changes, booking, to, 1);
+            applyChanges(changes);
+        }
+    }
+
+    public void recordDeleted(Booking booking) {
+        Map<CounterKey, BookingCounter> changes = new TreeMap<>(LOCK_ORDER);
+        add(changes, booking, booking.getStatus(), -1);
+        applyChanges(changes);
+    }
+
+    public void recordCleanerBookingsDeleted(Long cleanerId) {
+        applyChanges(removals(bookingRepository.summarizeForCountersByCleaner(cleanerId)));
+    }
+
+    public void recordCustomerBookingsDeleted(Long customerId) {
+        applyChanges(removals(bookingRepository.summarizeForCountersByCustomer(customerId)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingCounter> getMonthCounters(CounterScope scope, Long scopeId, LocalDate month) {
+        LocalDate period = month.withDayOfMonth(1);
+        if (scope != CounterScope.ALL) {
+            return counterRepository.findByScopeAndScopeIdAndPeriod(scope, scopeId, period);
+        }
+        // Every booking has exactly one cleaner, so the cleaner rows add up to the totals
+        List<BookingCounter> totals = new ArrayList<>();
+        for (Object[] row : counterRepository.sumPeriodByStatus(CounterScope.CLEANER, period)) {
+            BookingCounter total = new BookingCounter();
+            total.setScope(CounterScope.ALL);
+            total.setScopeId(ALL_SCOPE_ID);
+            total.setStatus((BookingStatus) row[0]);
+            total.setPeriod(period);
+            total.setBookingCount(((Number) row[1]).longValue());
+            total.setTotalAmount((BigDecimal) row[2]);
+            totals.add(total);
+        }
+        return totals;
+    }
+
+    // Rows: status, count, amount
+    @Transactional(readOnly = true)
+    public List<Object[]> getTotalsByStatus(CounterScope scope, Long scopeId) {
+        if (scope == CounterScope.ALL) {
+            return counterRepository.sumScopeByStatus(CounterScope.CLEANER);
+        }
+        return counterRepository.sumByStatus(scope, scopeId);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return counterRepository.count() == 0;
+    }
+
+    /**
+     * Recomputes every counter from the bookings table and repairs the rows that drifted.
+     * Returns the number of counters that had to be corrected.
+     */
+    @Scheduled(cron = "${app.counters.reconcileCron:0 30 3 * * *}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int reconcile() {
+        // Counters and bookings are read from the same snapshot and corrections are applied as
+        // increments, so bookings written meanwhile keep their own updates and only repaired rows are locked
+        Map<CounterKey, BookingCounter> expected = new HashMap<>();
+        for (Object[] row : bookingRepository.summarizeForCounters()) {
+            BookingStatus status = (BookingStatus) row[2];
+            if (status == null) {
+                continue;
+            }
+            LocalDate period = LocalDate.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue(), 1);
+            long count = ((Number) row[5]).longValue();
+            BigDecimal amount = (BigDecimal) row[6];
+            accumulate(expected, new CounterKey(CounterScope.CUSTOMER, (Long) row[0], status, period), count, amount);
+            accumulate(expected, new CounterKey(CounterScope.CLEANER, (Long) row[1], status, period), count, amount);
+        }
+
+        Map<CounterKey, BookingCounter> corrections = new TreeMap<>(LOCK_ORDER);
+        for (BookingCounter actual : counterRepository.findAll()) {
+            CounterKey key = new CounterKey(actual.getScope(), actual.getScopeId(), actual.getStatus(), actual.getPeriod());
+            BookingCounter wanted = expected.remove(key);
+            long count = wanted != null ? wanted.getBookingCount() : 0L;
+            BigDecimal amount = wanted != null ? wanted.getTotalAmount() : BigDecimal.ZERO;
+            if (actual.getBookingCount() != count || actual.getTotalAmount().compareTo(amount) != 0) {
+                logger.warn("Booking counter {} {} {} {} drifted: count {} -> {}, amount {} -> {}",
+                        actual.getScope(), actual.getScopeId(), actual.getStatus(), actual.getPeriod(),
+                        actual.getBookingCount(), count, actual.getTotalAmount(), amount);
+                accumulate(corrections, key, count - actual.getBookingCount(), amount.subtract(actual.getTotalAmount()));
+            }
+        }
+        for (Map.Entry<CounterKey, BookingCounter> missing : expected.entrySet()) {
+            accumulate(corrections, missing.getKey(), missing.getValue().getBookingCount(), missing.getValue().getTotalAmount());
+        }
+        applyChanges(corrections);
+
+        logger.info("Booking counter reconciliation finished, {} counters repaired", corrections.size());
+        return corrections.size();
+    }
+
+    private void add(Map<CounterKey, BookingCounter> changes, Booking booking, BookingStatus status, int sign) {
+        if (status == null || booking.getBookingDate() == null) {
+            return;
+        }
+        LocalDate period = booking.getBookingDate().toLocalDate().withDayOfMonth(1);
+        BigDecimal amount = booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO;
+        amount = amount.multiply(BigDecimal.valueOf(sign));
+        accumulate(changes, new CounterKey(CounterScope.CLEANER, booking.getCleaner().getId(), status, period), sign, amount);
+        accumulate(changes, new CounterKey(CounterScope.CUSTOMER, booking.getCustomer().getId(), status, period), sign, amount);
+    }
+
+    // Rows: customerId, cleanerId, status, year, month, count, amount
+    private static Map<CounterKey, BookingCounter> removals(List<Object[]> rows) {
+        Map<CounterKey, BookingCounter> changes = new TreeMap<>(LOCK_ORDER);
+        for (Object[] row : rows) {
+            BookingStatus status = (BookingStatus) row[2];
+            if (status == null) {
+                continue;
+            }
+            LocalDate period = LocalDate.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue(), 1);
+            long count = -((Number) row[5]).longValue();
+            BigDecimal amount = ((BigDecimal) row[6]).negate();
+            accumulate(changes, new CounterKey(CounterScope.CLEANER, (Long) row[1], status, period), count, amount);
+            accumulate(changes, new CounterKey(CounterScope.CUSTOMER, (Long) row[0], status, period), count, amount);
+        }
+        return changes;
+    }
+
+    private void applyChanges(Map<CounterKey, BookingCounter> changes) {
+        for (Map.Entry<CounterKey, BookingCounter> change : changes.entrySet()) {
+            CounterKey key = change.getKey();
+            counterRepository.increment(key.scope().name(), key.scopeId(), key.status().name(), key.period(),
+                    change.getValue().getBookingCount(), change.getValue().getTotalAmount());
+        }
+    }
+
+    private static void accumulate(Map<CounterKey, BookingCounter> counters, CounterKey key, long count, BigDecimal amount) {
+        BookingCounter counter = counters.computeIfAbsent(key, k -> {
+            BookingCounter created = new BookingCounter();
+            created.setScope(k.scope());
+            created.setScopeId(k.scopeId());
+            created.setStatus(k.status());
+            created.setPeriod(k.period());
+            return created;
+        });
+        counter.setBookingCount(counter.getBookingCount() + count);
+        counter.setTotalAmount(counter.getTotalAmount().add(amount));
+    }
+
+    private record CounterKey(CounterScope scope, Long scopeId, BookingStatus status, LocalDate period) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.adao.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads bookings for finance exports straight off a forward-only JDBC cursor. Nothing is
+ * loaded into the persistence context and rows are handed on one at a time, so memory use
+ * does not depend on how many bookings the range covers.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BookingExportService {
+
+    /** Columns an export may select, by the name used in requests and headers. */
+    public static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", "b.id");
+        COLUMNS.put("bookingDate", "b.booking_date");
+        COLUMNS.put("durationHours", "b.duration_hours");
+        COLUMNS.put("totalAmount", "b.total_amount");
+        COLUMNS.put("status", "b.status");
+        COLUMNS.put("serviceAddress", "b.service_address");
+        COLUMNS.put("specialInstructions", "b.special_instructions");
+        COLUMNS.put("createdAt", "b.created_at");
+        COLUMNS.put("updatedAt", "b.updated_at");
+        COLUMNS.put("customerId", "b.customer_id");
+        COLUMNS.put("customerFirstName", "cu.first_name");
+        COLUMNS.put("customerLastName", "cu.last_name");
+        COLUMNS.put("customerEmail", "cu.email");
+        COLUMNS.put("cleanerId", "b.cleaner_id");
+        COLUMNS.put("cleanerFirstName", "cl.first_name");
+        COLUMNS.put("cleanerLastName", "cl.last_name");
+        COLUMNS.put("cleanerHourlyRate", "cr.hourly_rate");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result
+    @Value("${app.export.fetchSize:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+
+    public void validateColumns(List<String> columns) {
+        if (columns.isEmpty()) {
+            throw new RuntimeException("No columns selected");
+        }
+        for (String column : columns) {
+            if (!COLUMNS.containsKey(column)) {
+                throw new RuntimeException("Unknown column: " + column);
+            }
+        }
+    }
+
+    /**
+     * Passes each booking dated from {@code from} to {@code to} (inclusive) to the consumer, as the
+     * selected column values in order. Dates arrive as LocalDateTime.
+     */
+    public void exportBookings(LocalDate from, LocalDate to, List<String> columns, Consumer<Object[]> consumer) {
+        validateColumns(columns);
+        String sql = buildQuery(columns);
+        int width = columns.size();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, from.atStartOfDay());
+            statement.setObject(2, to.plusDays(1).atStartOfDay());
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            Object[] row = new Object[width];
+            for (int i = 0; i < width; i++) {
+                Object value = rs.getObject(i + 1);
+                row[i] = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+            }
+            consumer.accept(row);
+        });
+    }
+
+    private static String buildQuery(List<String> columns) {
+        StringBuilder select = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            select.append(i > 0 ? ", " : "").append(COLUMNS.get(columns.get(i)));
+        }
+        String selected = select.toString();
+        select.append(" FROM bookings b");
+        // Join only the tables the selected columns come from
+        if (selected.contains("cu.")) {
+            select.append(" JOIN users cu ON cu.id = b.customer_id");
+        }
+        if (selected.contains("cl.")) {
+            select.append(" JOIN users cl ON cl.id = b.cleaner_id");
+        }
+        if (selected.contains("cr.")) {
+            select.append(" JOIN cleaners cr ON cr.user_id = b.cleaner_id");
+        }
+        select.append(" WHERE b.booking_date >= ? AND b.booking_date < ? ORDER BY b.booking_date, b.id");
+        return select.toString();
+    }
+}
@@ -1,25 +1,43 @@
 package com.adao.service;
 
 import com.adao.entity.Booking;
+import com.adao.entity.BookingSlot;
 import com.adao.entity.BookingStatus;
 import com.adao.entity.Cleaner;
 import com.adao.entity.Customer;
+import com.adao.projection.BookingSummary;
 import com.adao.repository.BookingRepository;
+import com.adao.repository.BookingSlotRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class BookingService {
     
+    private static final int MAX_MATRIX_CLEANERS = 100;
+    private static final int MAX_MATRIX_DAYS = 92;
+    
     @Autowired
     private BookingRepository bookingRepository;
     
@@ -29,80 +47,161 @@ public class BookingService {
     @Autowired
     private CleanerService cleanerService;
     
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private BookingSlotRepository bookingSlotRepository;
+    
+    @Autowired
+    private CleanerSearchIndex cleanerSearchIndex;
+    
+    @Autowired
+    private BookingCounterService counterService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer lookupTimer;
+    private Timer conflictCheckTimer;
+    private Timer insertTimer;
+    
+    @PostConstruct
+    void registerMeters() {
+        lookupTimer = createPhaseTimer("lookup");
+        conflictCheckTimer = createPhaseTimer("conflict_check");
+        insertTimer = createPhaseTimer("insert");
     }
     
-    public Optional<Booking> getBookingById(Long id) {
-        return bookingRepository.findById(id);
+    public List<BookingSummary> getAllBookings() {
+        return bookingRepository.findAllSummaries();
     }
     
-    public List<Booking> getBookingsByCustomer(Long customerId) {
-        Customer customer = customerService.getCustomerById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
-        return bookingRepository.findByCustomer(customer);
+    /**
+     * One page of bookings ordered by (bookingDate, id). Pass the last row of the previous
+     * page as the cursor, or nulls for the first page.
+     */
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingsPage(LocalDateTime afterDate, Long afterId, int size) {
+        PageRequest limit = PageRequest.of(0, size);
+        if (afterDate == null || afterId == null) {
+            return bookingRepository.findFirstPageOrderByBookingDate(limit);
+        }
+        return bookingRepository.findPageAfterOrderByBookingDate(afterDate, afterId, limit);
     }
     
-    public List<Booking> getBookingsByCleaner(Long cleanerId) {
-        Cleaner cleaner = cleanerService.getCleanerById(cleanerId)
-                .orElseThrow(() -> new RuntimeException("Cleaner not found"));
-        return bookingRepository.findByCleaner(cleaner);
+    /**
+     * Streams every booking to the consumer in (bookingDate, id) order while the rows are read.
+     * Summaries are not managed entities, so memory use does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllBookings(Consumer<BookingSummary> consumer) {
+        try (Stream<BookingSummary> bookings = bookingRepository.streamAllOrderByBookingDate()) {
+            bookings.forEach(consumer);
+        }
     }
     
-    public List<Booking> getBookingsByStatus(BookingStatus status) {
-        return bookingRepository.findByStatus(status);
+    public Optional<Booking> getBookingById(Long id) {
+        return bookingRepository.findById(id);
     }
     
-    public List<Booking> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.findByBookingDateBetween(startDate, endDate);
+    public List<BookingSummary> getBookingsByCustomer(Long customerId) {
+        List<BookingSummary> bookings = bookingRepository.findSummariesByCustomerId(customerId);
+        // Only an empty result needs the existence check
+        if (bookings.isEmpty() && customerService.getCustomerById(customerId).isEmpty()) {
+            throw new RuntimeException("Customer not found");
+        }
+        return bookings;
+    }
+    
+    public List<BookingSummary> getBookingsByCleaner(Long cleanerId) {
+        List<BookingSummary> bookings = bookingRepository.findSummariesByCleanerId(cleanerId);
+        if (bookings.isEmpty() && cleanerService.getCleanerById(cleanerId).isEmpty()) {
+            throw new RuntimeException("Cleaner not found");
+        }
+        return bookings;
     }
     
     public Booking createBooking(Long customerId, Long cleanerId, LocalDateTime bookingDate, 
                                 Integer durationHours, String specialInstructions, String serviceAddress) {
-        Customer customer = customerService.getCustomerById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
-        
-        Cleaner cleaner = cleanerService.getCleanerById(cleanerId)
-                .orElseThrow(() -> new RuntimeException("Cleaner not found"));
-        
-        // Enforce same-day availability: reject if cleaner already has any non-cancelled booking that day
-        LocalDateTime startOfDay = bookingDate.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusNanos(1);
-        List<Booking> existingForDay = bookingRepository.findCleanerBookingsOnDay(cleaner, startOfDay, endOfDay);
-        if (!existingForDay.isEmpty()) {
-            throw new RuntimeException("Cleaner is not available on the selected day");
+        Timer.Sample total = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            Timer.Sample phase = Timer.start(meterRegistry);
+            Customer customer = customerService.getCustomerById(customerId)
+                    .orElseThrow(() -> new RuntimeException("Customer not found"));
+            
+            Cleaner cleaner = cleanerService.getCleanerById(cleanerId)
+                    .orElseThrow(() -> new RuntimeException("Cleaner not found"));
+            phase.stop(lookupTimer);
+            
+            // Enforce same-day availability: reject if cleaner already has any non-cancelled booking that day
+            phase = Timer.start(meterRegistry);
+            boolean dayClaimed = availabilityIndex.tryOccupy(cleaner.getId(), bookingDate.toLocalDate());
+            phase.stop(conflictCheckTimer);
+            if (!dayClaimed) {
+                outcome = "conflict";
+                throw new RuntimeException("Cleaner is not available on the selected day");
+            }
+            
+            // Calculate total amount
+            BigDecimal totalAmount = cleaner.getHourlyRate().multiply(BigDecimal.valueOf(durationHours));
+            
+            Booking booking = new Booking();
+            booking.setCustomer(customer);
+            booking.setCleaner(cleaner);
+            booking.setBookingDate(bookingDate);
+            booking.setDurationHours(durationHours);
+            booking.setTotalAmount(totalAmount);
+            booking.setSpecialInstructions(specialInstructions);
+            booking.setServiceAddress(serviceAddress);
+            booking.setStatus(BookingStatus.PENDING);
+            
+            phase = Timer.start(meterRegistry);
+            Booking savedBooking = bookingRepository.save(booking);
+            reserveSlot(savedBooking);
+            counterService.recordCreated(savedBooking);
+            phase.stop(insertTimer);
+            outcome = "created";
+            return savedBooking;
+        } finally {
+            total.stop(Timer.builder("booking.create")
+                    .description("Time to create a booking, by outcome (created, conflict or failed)")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
-        
-        // Calculate total amount
-        BigDecimal totalAmount = cleaner.getHourlyRate().multiply(BigDecimal.valueOf(durationHours));
-        
-        Booking booking = new Booking();
-        booking.setCustomer(customer);
-        booking.setCleaner(cleaner);
-        booking.setBookingDate(bookingDate);
-        booking.setDurationHours(durationHours);
-        booking.setTotalAmount(totalAmount);
-        booking.setSpecialInstructions(specialInstructions);
-        booking.setServiceAddress(serviceAddress);
-        booking.setStatus(BookingStatus.PENDING);
-        
-        return bookingRepository.save(booking);
     }
     
     public Booking updateBookingStatus(Long bookingId, BookingStatus status) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
         
+        Long cleanerId = booking.getCleaner().getId();
+        LocalDate day = booking.getBookingDate().toLocalDate();
+        if (booking.getStatus() != BookingStatus.CANCELLED && status == BookingStatus.CANCELLED) {
+            availabilityIndex.release(cleanerId, day);
+            bookingSlotRepository.deleteByBookingId(bookingId);
+        } else if (booking.getStatus() == BookingStatus.CANCELLED && status != BookingStatus.CANCELLED) {
+            if (!availabilityIndex.tryOccupy(cleanerId, day)) {
+                throw new RuntimeException("Cleaner is not available on the selected day");
+            }
+            reserveSlot(booking);
+        }
+        
+        counterService.recordStatusChange(booking, booking.getStatus(), status);
         booking.setStatus(status);
         return bookingRepository.save(booking);
     }
     
-    public Booking updateBooking(Booking booking) {
-        return bookingRepository.save(booking);
-    }
-    
     public void deleteBooking(Long id) {
-        bookingRepository.deleteById(id);
+        bookingRepository.findById(id).ifPresent(booking -> {
+            if (booking.getStatus() != BookingStatus.CANCELLED) {
+                availabilityIndex.release(booking.getCleaner().getId(), booking.getBookingDate().toLocalDate());
+            }
+            bookingSlotRepository.deleteByBookingId(id);
+            counterService.recordDeleted(booking);
+            bookingRepository.delete(booking);
+        });
     }
     
     public Booking confirmBooking(Long bookingId) {
@@ -141,15 +240,68 @@ public class BookingService {
         return booking;
     }
     
+    public int backfillBookingSlots() {
+        return bookingSlotRepository.backfillActiveBookings();
+    }
+    
+    private Timer createPhaseTimer(String phase) {
+        return Timer.builder("booking.create.phase")
+                .description("Time spent in each step of creating a booking")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+    
+    // The unique (cleaner_id, slot_date) key rejects a concurrent booking for the same day atomically
+    private void reserveSlot(Booking booking) {
+        try {
+            bookingSlotRepository.saveAndFlush(new BookingSlot(
+                    booking.getCleaner().getId(), booking.getBookingDate().toLocalDate(), booking.getId()));
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Cleaner is not available on the selected day");
+        }
+    }
+    
+    /**
+     * Availability of several cleaners over a date range, one bit per day: bit {@code i} is set
+     * when the cleaner is free on {@code from.plusDays(i)} and clear when it is already booked.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BitSet> getAvailabilityMatrix(List<Long> cleanerIds, LocalDate from, LocalDate to) {
+        if (cleanerIds.isEmpty() || cleanerIds.size() > MAX_MATRIX_CLEANERS) {
+            throw new RuntimeException("Between 1 and " + MAX_MATRIX_CLEANERS + " cleaners must be requested");
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_MATRIX_DAYS) {
+            throw new RuntimeException("Date range must cover between 1 and " + MAX_MATRIX_DAYS + " days");
+        }
+        
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        Map<Long, BitSet> matrix = new LinkedHashMap<>();
+        for (Long cleanerId : cleanerIds) {
+            BitSet free = new BitSet(days);
+            free.set(0, days);
+            matrix.put(cleanerId, free);
+        }
+        
+        List<Object[]> bookedDays = bookingRepository.countCleanerBookingsPerDay(
+                matrix.keySet(), from.atStartOfDay(), to.plusDays(1).atStartOfDay().minusNanos(1));
+        for (Object[] row : bookedDays) {
+            int offset = (int) ChronoUnit.DAYS.between(from, (LocalDate) row[1]);
+            matrix.get((Long) row[0]).clear(offset);
+        }
+        return matrix;
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean isCleanerAvailableOnDate(Long cleanerId, String dateString) {
-        Cleaner cleaner = cleanerService.getCleanerById(cleanerId)
-                .orElseThrow(() -> new RuntimeException("Cleaner not found"));
+        // Every cleaner has a summary in the search index, so the check needs no query
+        if (cleanerSearchIndex.getSummary(cleanerId).isEmpty()) {
+            throw new RuntimeException("Cleaner not found");
+        }
         
         LocalDate date = LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusNanos(1);
-        
-        List<Booking> existingForDay = bookingRepository.findCleanerBookingsOnDay(cleaner, startOfDay, endOfDay);
-        return existingForDay.isEmpty();
+        if (!availabilityIndex.isTracked(date)) {
+            return !bookingSlotRepository.existsByCleanerIdAndSlotDate(cleanerId, date);
+        }
+        return availabilityIndex.isAvailable(cleanerId, date);
     }
 }
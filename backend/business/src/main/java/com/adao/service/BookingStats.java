@@ -0,0 +1,97 @@
+package com.adao.service;
+
+import com.adao.entity.BookingStatus;
+import com.adao.entity.CleanerStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingStats {
+    private long totalBookings;
+    private Map<BookingStatus, Long> bookingsByStatus = new EnumMap<>(BookingStatus.class);
+    private BigDecimal completedRevenue = BigDecimal.ZERO;
+    private long bookingsThisMonth;
+    private BigDecimal completedRevenueThisMonth = BigDecimal.ZERO;
+    // Only filled in for the system-wide statistics
+    private Long totalCustomers;
+    private Long totalCleaners;
+    private Map<CleanerStatus, Long> cleanersByStatus;
+    private LocalDateTime generatedAt = LocalDateTime.now();
+
+    // Getters and Setters
+    public long getTotalBookings() {
+        return totalBookings;
+    }
+
+    public void setTotalBookings(long totalBookings) {
+        this.totalBookings = totalBookings;
+    }
+
+    public Map<BookingStatus, Long> getBookingsByStatus() {
+        return bookingsByStatus;
+    }
+
+    public void setBookingsByStatus(Map<BookingStatus, Long> bookingsByStatus) {
+        this.bookingsByStatus = bookingsByStatus;
+    }
+
+    public BigDecimal getCompletedRevenue() {
+        return completedRevenue;
+    }
+
+    public void setCompletedRevenue(BigDecimal completedRevenue) {
+        this.completedRevenue = completedRevenue;
+    }
+
+    public long getBookingsThisMonth() {
+        return bookingsThisMonth;
+    }
+
+    public void setBookingsThisMonth(long bookingsThisMonth) {
+        this.bookingsThisMonth = bookingsThisMonth;
+    }
+
+    public BigDecimal getCompletedRevenueThisMonth() {
+        return completedRevenueThisMonth;
+    }
+
+    public void setCompletedRevenueThisMonth(BigDecimal completedRevenueThisMonth) {
+        this.completedRevenueThisMonth = completedRevenueThisMonth;
+    }
+
+    public Long getTotalCustomers() {
+        return totalCustomers;
+    }
+
+    public void setTotalCustomers(Long totalCustomers) {
+        this.totalCustomers = totalCustomers;
+    }
+
+    public Long getTotalCleaners() {
+        return totalCleaners;
+    }
+
+    public void setTotalCleaners(Long totalCleaners) {
+        this.totalCleaners = totalCleaners;
+    }
+
+    public Map<CleanerStatus, Long> getCleanersByStatus() {
+        return cleanersByStatus;
+    }
+
+    public void setCleanersByStatus(Map<CleanerStatus, Long> cleanersByStatus) {
+        this.cleanersByStatus = cleanersByStatus;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
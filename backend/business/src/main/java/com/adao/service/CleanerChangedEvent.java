@@ -0,0 +1,18 @@
+package com.adao.service;
+
+/**
+ * Published when a cleaner's searchable details change in a way {@link UserChangedEvent} does not
+ * announce: registration, rate changes and imports. A null cleaner id means any cleaner may have changed.
+ */
+public class CleanerChangedEvent {
+
+    private final Long cleanerId;
+
+    public CleanerChangedEvent(Long cleanerId) {
+        this.cleanerId = cleanerId;
+    }
+
+    public Long getCleanerId() {
+        return cleanerId;
+    }
+}
@@ -0,0 +1,488 @@
+package com.adao.service;
+
+import com.adao.entity.CleanerStatus;
+import com.adao.projection.CleanerSummary;
+import com.adao.repository.CleanerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory index over all cleaners for combined searches. Cleaners sit in one array sorted by
+ * hourly rate (unrated last); the per-city and per-region posting lists hold positions in that
+ * array, so they are rate-ordered too, and a bitmap per status marks who has it. A query walks the
+ * most selective posting list between the rate bounds and checks the remaining filters per position.
+ * Located cleaners are also bucketed into a grid of {@value #GRID_DEGREES}-degree cells, searched in
+ * rings outwards from the origin for nearest-cleaner lookups and recommendations. Changes arrive
+ * through {@link UserChangedEvent} and {@link CleanerChangedEvent}. The arrays are rebuilt on a
+ * background thread and swapped in whole, so searches never wait for a rebuild and keep reading
+ * the previous arrays until the new ones are ready.
+ */
+@Component
+public class CleanerSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CleanerSearchIndex.class);
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private static final double GRID_DEGREES = 0.05;
+    private static final double KM_PER_DEGREE = 111.19;
+
+    private static final Comparator<CleanerSummary> BY_RATE = Comparator
+            .comparing(CleanerSummary::getHourlyRate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CleanerSummary::getId);
+
+    private final Map<Long, CleanerSummary> cleaners = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    // Set while a task is waiting on the rebuild thread, so a burst of changes queues one task
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private ExecutorService rebuilder;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @PostConstruct
+    public void warmUp() {
+        rebuilder = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "cleaner-index-rebuild"));
+        loadAll();
+        snapshot = new Snapshot(cleaners.values());
+        logger.info("Cleaner search index warmed with {} cleaners", cleaners.size());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        rebuilder.shutdown();
+        rebuilder.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        reload(event.getUserId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCleanerChanged(CleanerChangedEvent event) {
+        reload(event.getCleanerId());
+    }
+
+    /**
+     * Finds cleaners matching every given filter (null filters match anything), ordered by hourly
+     * rate with unrated cleaners last. City and region match case-insensitively; a rate bound
+     * excludes unrated cleaners.
+     */
+    public CleanerSearchResult search(String city, String region, CleanerStatus status,
+                                      BigDecimal minRate, BigDecimal maxRate, boolean descending,
+                                      int page, int size) {
+        Snapshot current = snapshot;
+        int rated = current.ratedCount;
+        int from = minRate == null ? 0 : current.firstRateAtLeast(minRate);
+        int to = maxRate == null ? rated : current.firstRateAbove(maxRate);
+        boolean includeUnrated = minRate == null && maxRate == null;
+
+        int[] cityPositions = city == null ? null : current.byCity.getOrDefault(key(city), NO_POSITIONS);
+        int[] regionPositions = region == null ? null : current.byRegion.getOrDefault(key(region), NO_POSITIONS);
+        BitSet statusBits = status == null ? null : current.byStatus.get(status);
+
+        Collector collector = new Collector(current.byRate, page * size, size);
+        collector.scan(cityPositions, regionPositions, statusBits, from, to, descending);
+        if (includeUnrated) {
+            collector.scan(cityPositions, regionPositions, statusBits, rated, current.byRate.length, false);
+        }
+        return new CleanerSearchResult(collector.items, collector.total, page, size);
+    }
+
+    /**
+     * Finds up to {@code limit} located cleaners with the given status (any when null) within
+     * {@code radiusKm} of the origin, nearest first.
+     */
+    public List<NearbyCleaner> nearby(GeoPoint origin, double radiusKm, CleanerStatus status, int limit) {
+        Snapshot current = snapshot;
+        BitSet statusBits = status == null ? null : current.byStatus.get(status);
+        if (status != null && statusBits == null) {
+            return List.of();
+        }
+        return new Ranking(current, origin, radiusKm, statusBits, current.byRate.length, position -> true, 0, limit).run();
+    }
+
+    /**
+     * Ranks the available cleaners that {@code bookable} accepts (by id) and that charge at most
+     * {@code maxRate} (when given). With an origin, only cleaners within {@code radiusKm} count and
+     * the score is {@code rateWeight * rate / highest rate + (1 - rateWeight) * distance / radiusKm},
+     * lowest first, with unrated cleaners scored at the highest rate. Without one, the cheapest come first.
+     */
+    public List<NearbyCleaner> recommend(GeoPoint origin, double radiusKm, BigDecimal maxRate, double rateWeight,
+                                         LongPredicate bookable, int limit) {
+        Snapshot current = snapshot;
+        BitSet available = current.byStatus.get(CleanerStatus.AVAILABLE);
+        if (available == null || limit < 1) {
+            return List.of();
+        }
+        // Positions are rate-ordered, so a rate cap is a position cap
+        int end = maxRate == null ? current.byRate.length : current.firstRateAbove(maxRate);
+        IntPredicate accepts = position -> bookable.test(current.byRate[position].getId());
+        if (origin != null) {
+            return new Ranking(current, origin, radiusKm, available, end, accepts, rateWeight, limit).run();
+        }
+        List<NearbyCleaner> cheapest = new ArrayList<>(limit);
+        for (int p = available.nextSetBit(0); p >= 0 && p < end && cheapest.size() < limit; p = available.nextSetBit(p + 1)) {
+            if (accepts.test(p)) {
+                cheapest.add(new NearbyCleaner(current.byRate[p], null));
+            }
+        }
+        return cheapest;
+    }
+
+    public Optional<CleanerSummary> getSummary(Long cleanerId) {
+        return Optional.ofNullable(cleaners.get(cleanerId));
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                // Cleared first, so a change that lands during the rebuild queues another one
+                rebuildQueued.set(false);
+                try {
+                    snapshot = new Snapshot(cleaners.values());
+                } catch (RuntimeException e) {
+                    logger.error("Rebuilding the cleaner search index failed", e);
+                }
+            });
+        }
+    }
+
+    private void scheduleReloadAll() {
+        if (reloadQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                reloadQueued.set(false);
+                try {
+                    loadAll();
+                } catch (RuntimeException e) {
+                    logger.error("Reloading the cleaner search index failed", e);
+                }
+                scheduleRebuild();
+            });
+        }
+    }
+
+    // Replaces the entries in place, so getSummary never sees an empty map mid-reload
+    private void loadAll() {
+        Map<Long, CleanerSummary> loaded = new HashMap<>();
+        for (CleanerSummary cleaner : cleanerRepository.findAllSummaries()) {
+            loaded.put(cleaner.getId(), cleaner);
+        }
+        cleaners.putAll(loaded);
+        cleaners.keySet().retainAll(loaded.keySet());
+    }
+
+    private void reload(Long cleanerId) {
+        if (cleanerId == null) {
+            scheduleReloadAll();
+            return;
+        }
+        Optional<CleanerSummary> cleaner = cleanerRepository.findSummaryById(cleanerId);
+        if (cleaner.isPresent()) {
+            cleaners.put(cleanerId, cleaner.get());
+        } else if (cleaners.remove(cleanerId) == null) {
+            // Not a cleaner, or already gone
+            return;
+        }
+        scheduleRebuild();
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / GRID_DEGREES);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+
+        private final CleanerSummary[] byRate;
+        private final int ratedCount;
+        private final Map<String, int[]> byCity;
+        private final Map<String, int[]> byRegion;
+        private final Map<CleanerStatus, BitSet> byStatus = new EnumMap<>(CleanerStatus.class);
+        private final Map<Long, int[]> byCell;
+
+        Snapshot(Collection<CleanerSummary> cleaners) {
+            byRate = cleaners.toArray(new CleanerSummary[0]);
+            Arrays.sort(byRate, BY_RATE);
+            int rated = 0;
+            while (rated < byRate.length && byRate[rated].getHourlyRate() != null) {
+                rated++;
+            }
+            ratedCount = rated;
+
+            Map<String, List<Integer>> cities = new HashMap<>();
+            Map<String, List<Integer>> regions = new HashMap<>();
+            Map<Long, List<Integer>> cells = new HashMap<>();
+            for (int position = 0; position < byRate.length; position++) {
+                CleanerSummary cleaner = byRate[position];
+                if (cleaner.getCity() != null) {
+                    cities.computeIfAbsent(key(cleaner.getCity()), k -> new ArrayList<>()).add(position);
+                }
+                if (cleaner.getRegion() != null) {
+                    regions.computeIfAbsent(key(cleaner.getRegion()), k -> new ArrayList<>()).add(position);
+                }
+                if (cleaner.getCleanerStatus() != null) {
+                    byStatus.computeIfAbsent(cleaner.getCleanerStatus(), s -> new BitSet(byRate.length)).set(position);
+                }
+                if (cleaner.getLatitude() != null && cleaner.getLongitude() != null) {
+                    cells.computeIfAbsent(cellKey(cell(cleaner.getLatitude()), cell(cleaner.getLongitude())),
+                            k -> new ArrayList<>()).add(position);
+                }
+            }
+            byCity = toPostingLists(cities);
+            byRegion = toPostingLists(regions);
+            byCell = toPostingLists(cells);
+        }
+
+        int firstRateAtLeast(BigDecimal rate) {
+            int low = 0;
+            int high = ratedCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (byRate[mid].getHourlyRate().compareTo(rate) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int firstRateAbove(BigDecimal rate) {
+            int low = 0;
+            int high = ratedCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (byRate[mid].getHourlyRate().compareTo(rate) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static <K> Map<K, int[]> toPostingLists(Map<K, List<Integer>> lists) {
+            Map<K, int[]> postings = new HashMap<>(lists.size() * 2);
+            lists.forEach((key, positions) -> postings.put(key, positions.stream().mapToInt(Integer::intValue).toArray()));
+            return postings;
+        }
+    }
+
+    /**
+     * Counts matches and keeps the requested page of them.
+     */
+    private static final class Collector {
+
+        private final CleanerSummary[] byRate;
+        private final int skip;
+        private final int size;
+        private final List<CleanerSummary> items = new ArrayList<>();
+        private int total;
+
+        Collector(CleanerSummary[] byRate, int skip, int size) {
+            this.byRate = byRate;
+            this.skip = skip;
+            this.size = size;
+        }
+
+        void scan(int[] cityPositions, int[] regionPositions, BitSet statusBits, int from, int to, boolean descending) {
+            if (from >= to) {
+                return;
+            }
+            int[] driver = shortest(cityPositions, regionPositions);
+            if (driver != null) {
+                int[] other = driver == cityPositions ? regionPositions : cityPositions;
+                int low = insertionPoint(driver, from);
+                int high = insertionPoint(driver, to);
+                for (int i = 0; i < high - low; i++) {
+                    int position = driver[descending ? high - 1 - i : low + i];
+                    if ((other == null || Arrays.binarySearch(other, position) >= 0)
+                            && (statusBits == null || statusBits.get(position))) {
+                        accept(position);
+                    }
+                }
+            } else if (statusBits != null) {
+                if (descending) {
+                    for (int p = statusBits.previousSetBit(to - 1); p >= from; p = statusBits.previousSetBit(p - 1)) {
+                        accept(p);
+                    }
+                } else {
+                    for (int p = statusBits.nextSetBit(from); p >= 0 && p < to; p = statusBits.nextSetBit(p + 1)) {
+                        accept(p);
+                    }
+                }
+            } else {
+                // No filter beyond the rate range: the page is a slice, no need to visit every position
+                int count = to - from;
+                for (int i = Math.max(0, skip - total); i < count && items.size() < size; i++) {
+                    items.add(byRate[descending ? to - 1 - i : from + i]);
+                }
+                total += count;
+            }
+        }
+
+        private void accept(int position) {
+            if (total >= skip && items.size() < size) {
+                items.add(byRate[position]);
+            }
+            total++;
+        }
+
+        private static int[] shortest(int[] a, int[] b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            return a.length <= b.length ? a : b;
+        }
+
+        // Index of the first element >= value in a sorted array
+        private static int insertionPoint(int[] positions, int value) {
+            int index = Arrays.binarySearch(positions, value);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Keeps the best-scoring cleaners around an origin, searching grid cells in rings outwards until
+     * no cell further out can beat the current worst kept.
+     */
+    private static final class Ranking {
+
+        private final Snapshot snapshot;
+        private final double latitude;
+        private final double longitude;
+        private final double radiusKm;
+        private final BitSet statusBits;
+        private final int endPosition;
+        private final IntPredicate accepts;
+        private final double rateWeight;
+        private final double highestRate;
+        private final int limit;
+        // Worst first, so the head is the one to drop when a better cleaner turns up
+        private final PriorityQueue<Candidate> best;
+
+        Ranking(Snapshot snapshot, GeoPoint origin, double radiusKm, BitSet statusBits, int endPosition,
+                IntPredicate accepts, double rateWeight, int limit) {
+            this.snapshot = snapshot;
+            this.latitude = origin.getLatitude();
+            this.longitude = origin.getLongitude();
+            this.radiusKm = radiusKm;
+            this.statusBits = statusBits;
+            this.endPosition = endPosition;
+            this.accepts = accepts;
+            this.rateWeight = rateWeight;
+            this.highestRate = snapshot.ratedCount == 0 ? 1
+                    : snapshot.byRate[snapshot.ratedCount - 1].getHourlyRate().doubleValue();
+            this.limit = limit;
+            this.best = new PriorityQueue<>(limit + 1, Comparator.comparing(Candidate::score).reversed()
+                    .thenComparing(candidate -> -candidate.position()));
+        }
+
+        List<NearbyCleaner> run() {
+            if (limit < 1) {
+                return List.of();
+            }
+            int row = cell(latitude);
+            int column = cell(longitude);
+            for (int ring = 0; ring * GRID_DEGREES <= 180; ring++) {
+                // Every cell in this ring is at least ring - 1 whole cells from the origin along one axis;
+                // a longitude degree is shortest at the ring's highest latitude
+                double edgeLatitude = Math.min(89.0, Math.abs(latitude) + (ring + 1) * GRID_DEGREES);
+                double ringKm = Math.max(0, ring - 1) * GRID_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(edgeLatitude));
+                if (ringKm > radiusKm || (best.size() == limit && distanceScore(ringKm) > best.peek().score())) {
+                    break;
+                }
+                for (int offset = -ring; offset <= ring; offset++) {
+                    visit(row - ring, column + offset);
+                    if (ring > 0) {
+                        visit(row + ring, column + offset);
+                    }
+                    if (ring > 0 && offset > -ring && offset < ring) {
+                        visit(row + offset, column - ring);
+                        visit(row + offset, column + ring);
+                    }
+                }
+            }
+            List<Candidate> ranked = new ArrayList<>(best);
+            ranked.sort(Comparator.comparing(Candidate::score).thenComparing(Candidate::position));
+            List<NearbyCleaner> result = new ArrayList<>(ranked.size());
+            for (Candidate candidate : ranked) {
+                result.add(new NearbyCleaner(snapshot.byRate[candidate.position()], candidate.distanceKm()));
+            }
+            return result;
+        }
+
+        private void visit(int row, int column) {
+            int[] positions = snapshot.byCell.get(cellKey(row, column));
+            if (positions == null) {
+                return;
+            }
+            for (int position : positions) {
+                if (position >= endPosition || (statusBits != null && !statusBits.get(position))) {
+                    continue;
+                }
+                CleanerSummary cleaner = snapshot.byRate[position];
+                double distance = GeoPoint.distanceKm(latitude, longitude, cleaner.getLatitude(), cleaner.getLongitude());
+                if (distance > radiusKm) {
+                    continue;
+                }
+                double rate = cleaner.getHourlyRate() == null ? highestRate : cleaner.getHourlyRate().doubleValue();
+                double score = rateWeight * rate / highestRate + distanceScore(distance);
+                if ((best.size() < limit || score < best.peek().score()) && accepts.test(position)) {
+                    best.add(new Candidate(position, distance, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        private double distanceScore(double distanceKm) {
+            return (1 - rateWeight) * distanceKm / radiusKm;
+        }
+    }
+
+    private record Candidate(int position, double distanceKm, double score) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.adao.service;
+
+import com.adao.projection.CleanerSummary;
+
+import java.util.List;
+
+public class CleanerSearchResult {
+
+    private final List<CleanerSummary> items;
+    private final int total;
+    private final int page;
+    private final int size;
+
+    public CleanerSearchResult(List<CleanerSummary> items, int total, int page, int size) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+    }
+
+    public List<CleanerSummary> getItems() {
+        return items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
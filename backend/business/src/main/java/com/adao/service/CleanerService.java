@@ -5,11 +5,16 @@ import com.adao.entity.CleanerStatus;
 import com.adao.entity.RoleName;
 import com.adao.entity.UserStatus;
 import com.adao.repository.CleanerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -17,6 +22,8 @@ import java.util.Set;
 @Service
 @Transactional
 public class CleanerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CleanerService.class);
     
     @Autowired
     private CleanerRepository cleanerRepository;
@@ -26,6 +33,31 @@ public class CleanerService {
 
     @Autowired
     private com.adao.repository.BookingRepository bookingRepository;
+
+    @Autowired
+    private com.adao.repository.BookingSlotRepository bookingSlotRepository;
+
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private BookingCounterService counterService;
+
+    @Autowired
+    private CleanerSearchIndex searchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PostalCodeGeocoder geocoder;
+
+    @Autowired
+    private CleanerTextIndex textIndex;
+
+    // Share of a recommendation score that comes from the rate rather than the distance
+    @Value("${app.recommendations.rateWeight:0.5}")
+    private double recommendationRateWeight;
     
     public List<Cleaner> getAllCleaners() {
         return cleanerRepository.findAll();
@@ -45,7 +77,7 @@ public class CleanerService {
     
     public List<Cleaner> getAvailableCleaners() {
         List<Cleaner> cleaners = cleanerRepository.findByCleanerStatus(CleanerStatus.AVAILABLE);
-        System.out.println("Found " + cleaners.size() + " available cleaners");
+        logger.debug("Found {} available cleaners", cleaners.size());
         return cleaners;
     }
     
@@ -67,19 +99,36 @@ public class CleanerService {
     
     public Cleaner createCleaner(Cleaner cleaner) {
         Set<RoleName> roles = Set.of(RoleName.ROLE_CLEANER);
-        return (Cleaner) userService.createUser(cleaner, roles);
+        geocoder.locate(cleaner);
+        Cleaner saved = (Cleaner) userService.createUser(cleaner, roles);
+        cleanerChanged(saved.getId());
+        return saved;
     }
     
     public Cleaner updateCleaner(Cleaner cleaner) {
-        return cleanerRepository.save(cleaner);
+        geocoder.locate(cleaner);
+        Cleaner saved = cleanerRepository.save(cleaner);
+        userService.userChanged(saved.getId());
+        return saved;
+    }
+    
+    public void updateProfilePicture(Long cleanerId, String url) {
+        if (cleanerRepository.updateProfilePicture(cleanerId, url) == 0) {
+            throw new RuntimeException("Cleaner not found");
+        }
+        cleanerChanged(cleanerId);
     }
     
     public void deleteCleaner(Long id) {
         Cleaner cleaner = cleanerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cleaner not found"));
         // Remove bookings first to avoid FK constraints
-        bookingRepository.deleteByCleaner(cleaner);
+        bookingSlotRepository.deleteByCleanerId(id);
+        counterService.recordCleanerBookingsDeleted(id);
+        bookingRepository.deleteByCleanerId(id);
         cleanerRepository.delete(cleaner);
+        availabilityIndex.removeCleaner(id);
+        userService.userChanged(id);
     }
     
     public Cleaner updateCleanerStatus(Long cleanerId, CleanerStatus status) {
@@ -89,6 +138,7 @@ public class CleanerService {
         cleaner.setCleanerStatus(status);
         // All cleaner statuses allow login
         cleaner.setStatus(UserStatus.ACTIVE);
+        userService.userChanged(cleanerId);
         return cleanerRepository.save(cleaner);
     }
     
@@ -97,17 +147,51 @@ public class CleanerService {
                 .orElseThrow(() -> new RuntimeException("Cleaner not found"));
         
         cleaner.setHourlyRate(hourlyRate);
-        return cleanerRepository.save(cleaner);
+        Cleaner saved = cleanerRepository.save(cleaner);
+        cleanerChanged(cleanerId);
+        return saved;
+    }
+
+    public CleanerSearchResult searchCleaners(String city, String region, CleanerStatus status,
+                                              BigDecimal minRate, BigDecimal maxRate, boolean descending,
+                                              int page, int size) {
+        return searchIndex.search(city, region, status, minRate, maxRate, descending, page, size);
     }
     
-    public List<Cleaner> migratePendingToAvailable() {
-        List<Cleaner> pendingCleaners = cleanerRepository.findByCleanerStatus(CleanerStatus.PENDING_APPROVAL);
-        
-        for (Cleaner cleaner : pendingCleaners) {
-            cleaner.setCleanerStatus(CleanerStatus.AVAILABLE);
-            cleaner.setStatus(UserStatus.ACTIVE);
+    public int migratePendingToAvailable() {
+        int updated = cleanerRepository.activatePendingCleaners();
+        if (updated > 0) {
+            userService.userChanged(null);
         }
-        
-        return cleanerRepository.saveAll(pendingCleaners);
+        return updated;
+    }
+
+    public CleanerSearchResult searchCleanersByText(String text, int page, int size) {
+        return textIndex.search(text, page, size);
+    }
+
+    public List<NearbyCleaner> findNearbyCleaners(GeoPoint origin, double radiusKm, CleanerStatus status, int limit) {
+        return searchIndex.nearby(origin, radiusKm, status, limit);
+    }
+
+    /**
+     * Available cleaners that are still free on the given day, best first by rate and distance from
+     * the origin (by rate alone when there is no origin).
+     */
+    public List<NearbyCleaner> recommendCleaners(LocalDate day, GeoPoint origin, double radiusKm,
+                                                 BigDecimal maxRate, int limit) {
+        if (day.isBefore(LocalDate.now())) {
+            throw new RuntimeException("Date must not be in the past");
+        }
+        return searchIndex.recommend(origin, radiusKm, maxRate, recommendationRateWeight,
+                cleanerId -> availabilityIndex.isAvailable(cleanerId, day), limit);
+    }
+
+    /**
+     * Tells the search index a cleaner's rate or other searchable fields changed; a null id means
+     * any cleaner may have changed. Delivered after the surrounding transaction commits.
+     */
+    public void cleanerChanged(Long cleanerId) {
+        eventPublisher.publishEvent(new CleanerChangedEvent(cleanerId));
     }
 }
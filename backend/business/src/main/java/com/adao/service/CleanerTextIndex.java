@@ -0,0 +1,318 @@
+package com.adao.service;
+
+import com.adao.projection.CleanerSummary;
+import com.adao.repository.CleanerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Full-text index over cleaner names and bios, kept on local disk with Lucene. Each document
+ * carries the cleaner's updated_at, so startup only reindexes cleaners that changed while the
+ * application was down. While running, {@link UserChangedEvent} and {@link CleanerChangedEvent}
+ * update single documents, which are searchable right away; the index is committed to disk on a
+ * timer and at shutdown rather than per change.
+ */
+@Component
+public class CleanerTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CleanerTextIndex.class);
+
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+    private static final String NAME = "name";
+    private static final String BIO = "bio";
+
+    private static final int REINDEX_BATCH_SIZE = 500;
+    private static final int MAX_QUERY_TERMS = 10;
+    // Counting every hit stops Lucene skipping low-scoring blocks; past this the total is a lower bound
+    private static final int EXACT_TOTAL_LIMIT = 1000;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CleanerSearchIndex searchIndex;
+
+    @Value("${app.search.indexDir:cleaner-index}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(Path.of(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        synchronize();
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        // Commits pending changes
+        writer.close();
+        directory.close();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commitIntervalMs:30000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        update(event.getUserId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCleanerChanged(CleanerChangedEvent event) {
+        update(event.getCleanerId());
+    }
+
+    /**
+     * Ranked search over names (weighted double) and bios. Every word must match; a word that appears
+     * nowhere in the index is matched with one typo when it has three to five letters and two when
+     * longer, and the last word also matches as a prefix. Totals above {@value #EXACT_TOTAL_LIMIT}
+     * are lower bounds.
+     */
+    public CleanerSearchResult search(String text, int page, int size) {
+        List<String> words = analyze(text);
+        if (words.isEmpty()) {
+            throw new RuntimeException("Search text has no words");
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Query query = buildQuery(searcher, words);
+                TopScoreDocCollector collector = TopScoreDocCollector.create((page + 1) * size, EXACT_TOTAL_LIMIT);
+                searcher.search(query, collector);
+                TopDocs top = collector.topDocs(page * size, size);
+                StoredFields storedFields = searcher.storedFields();
+                List<CleanerSummary> items = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    long id = storedFields.document(hit.doc).getField(ID).numericValue().longValue();
+                    searchIndex.getSummary(id).ifPresent(items::add);
+                }
+                return new CleanerSearchResult(items, collector.getTotalHits(), page, size);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search index unavailable: " + e.getMessage());
+        }
+    }
+
+    private void update(Long cleanerId) {
+        try {
+            if (cleanerId == null) {
+                synchronize();
+                return;
+            }
+            List<Object[]> rows = cleanerRepository.findSearchTextByIds(List.of(cleanerId));
+            if (!rows.isEmpty()) {
+                index(rows.get(0));
+            } else if (isIndexed(cleanerId)) {
+                writer.deleteDocuments(idTerm(cleanerId));
+            } else {
+                // Not a cleaner
+                return;
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error("Could not update cleaner {} in the search index: {}", cleanerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Brings the index in line with the cleaners table: reindexes cleaners whose updated_at differs
+     * from the indexed one and drops documents of cleaners that no longer exist.
+     */
+    private synchronized void synchronize() throws IOException {
+        long started = System.currentTimeMillis();
+        Map<Long, Long> indexed = indexedVersions();
+        List<Long> stale = new ArrayList<>();
+        for (Object[] row : cleanerRepository.findAllVersions()) {
+            Long id = (Long) row[0];
+            if (!Objects.equals(indexed.remove(id), version((LocalDateTime) row[1]))) {
+                stale.add(id);
+            }
+        }
+        for (Long removed : indexed.keySet()) {
+            writer.deleteDocuments(idTerm(removed));
+        }
+        for (int from = 0; from < stale.size(); from += REINDEX_BATCH_SIZE) {
+            List<Long> batch = stale.subList(from, Math.min(stale.size(), from + REINDEX_BATCH_SIZE));
+            for (Object[] row : cleanerRepository.findSearchTextByIds(batch)) {
+                index(row);
+            }
+        }
+        if (stale.size() > REINDEX_BATCH_SIZE) {
+            // Fewer segments make fuzzy and prefix expansion cheaper after a bulk reindex
+            writer.forceMerge(1);
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+        logger.info("Cleaner text index synchronized: {} reindexed, {} removed in {} ms",
+                stale.size(), indexed.size(), System.currentTimeMillis() - started);
+    }
+
+    private Map<Long, Long> indexedVersions() throws IOException {
+        Map<Long, Long> versions = new HashMap<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                LeafReader reader = leaf.reader();
+                NumericDocValues ids = reader.getNumericDocValues(ID);
+                NumericDocValues docVersions = reader.getNumericDocValues(VERSION);
+                if (ids == null || docVersions == null) {
+                    continue;
+                }
+                Bits live = reader.getLiveDocs();
+                for (int doc = ids.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = ids.nextDoc()) {
+                    if ((live == null || live.get(doc)) && docVersions.advanceExact(doc)) {
+                        versions.put(ids.longValue(), docVersions.longValue());
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return versions;
+    }
+
+    private void index(Object[] row) throws IOException {
+        Long id = (Long) row[0];
+        String name = Optional.ofNullable((String) row[1]).orElse("") + " " + Optional.ofNullable((String) row[2]).orElse("");
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, id));
+        document.add(new StoredField(ID, id));
+        document.add(new NumericDocValuesField(VERSION, version((LocalDateTime) row[4])));
+        document.add(new TextField(NAME, name, Field.Store.NO));
+        if (row[3] != null) {
+            document.add(new TextField(BIO, (String) row[3], Field.Store.NO));
+        }
+        writer.updateDocument(idTerm(id), document);
+    }
+
+    private boolean isIndexed(Long cleanerId) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new TermQuery(idTerm(cleanerId))) > 0;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static Query buildQuery(IndexSearcher searcher, List<String> words) throws IOException {
+        IndexReader reader = searcher.getIndexReader();
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            boolean last = i == words.size() - 1;
+            // Expanding correctly spelled words to their neighbours costs far more than it finds
+            boolean known = reader.docFreq(new Term(NAME, word)) > 0 || reader.docFreq(new Term(BIO, word)) > 0;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            addWord(anyField, NAME, word, !known, last, 2f);
+            addWord(anyField, BIO, word, !known, last, 1f);
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    // Exact matches outrank fuzzy and prefix ones
+    private static void addWord(BooleanQuery.Builder builder, String field, String word, boolean fuzzy,
+                                boolean last, float boost) {
+        Term term = new Term(field, word);
+        builder.add(new BoostQuery(new TermQuery(term), boost), BooleanClause.Occur.SHOULD);
+        int maxEdits = word.length() <= 2 ? 0 : word.length() <= 5 ? 1 : 2;
+        if (fuzzy && maxEdits > 0) {
+            // A typo in the first letter is rare, and requiring it keeps the term expansion small
+            builder.add(new BoostQuery(new FuzzyQuery(term, maxEdits, 1), boost / 2), BooleanClause.Occur.SHOULD);
+        }
+        if (last && word.length() >= 2) {
+            builder.add(new BoostQuery(new PrefixQuery(term), boost / 2), BooleanClause.Occur.SHOULD);
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(BIO, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && words.size() < MAX_QUERY_TERMS) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read search text: " + e.getMessage());
+        }
+        return words;
+    }
+
+    private static Term idTerm(Long cleanerId) {
+        return new Term(ID, cleanerId.toString());
+    }
+
+    private static long version(LocalDateTime updatedAt) {
+        return updatedAt == null ? 0 : updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
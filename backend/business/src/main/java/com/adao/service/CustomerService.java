@@ -2,11 +2,14 @@ package com.adao.service;
 
 import com.adao.entity.Customer;
 import com.adao.entity.RoleName;
+import com.adao.repository.BookingRepository;
+import com.adao.repository.BookingSlotRepository;
 import com.adao.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -21,6 +24,21 @@ public class CustomerService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private BookingSlotRepository bookingSlotRepository;
+    
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private BookingCounterService counterService;
+    
+    @Autowired
+    private PostalCodeGeocoder geocoder;
+    
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
@@ -43,15 +61,35 @@ public class CustomerService {
     
     public Customer createCustomer(Customer customer) {
         Set<RoleName> roles = Set.of(RoleName.ROLE_CUSTOMER);
+        geocoder.locate(customer);
         return (Customer) userService.createUser(customer, roles);
     }
     
     public Customer updateCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        geocoder.locate(customer);
+        Customer saved = customerRepository.save(customer);
+        userService.userChanged(saved.getId());
+        return saved;
+    }
+    
+    public void updateProfilePicture(Long customerId, String url) {
+        if (customerRepository.updateProfilePicture(customerId, url) == 0) {
+            throw new RuntimeException("Customer not found");
+        }
     }
     
     public void deleteCustomer(Long id) {
-        customerRepository.deleteById(id);
+        customerRepository.findById(id).ifPresent(customer -> {
+            // Free the cleaners' days the customer's bookings were holding
+            for (Object[] slot : bookingRepository.findActiveBookingSlotsByCustomerId(id)) {
+                availabilityIndex.release((Long) slot[0], ((LocalDateTime) slot[1]).toLocalDate());
+            }
+            bookingSlotRepository.deleteByCustomerId(id);
+            counterService.recordCustomerBookingsDeleted(id);
+            bookingRepository.deleteByCustomerId(id);
+            customerRepository.delete(customer);
+            userService.userChanged(id);
+        });
     }
     
     public Customer updateCustomerAddress(Long customerId, String address, String city, 
@@ -64,7 +102,17 @@ public class CustomerService {
         customer.setRegion(region);
         customer.setPostalCode(postalCode);
         customer.setCountry(country);
+        geocoder.locate(customer);
         
         return customerRepository.save(customer);
     }
+    
+    public Optional<GeoPoint> getCustomerLocation(Long customerId) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        if (customer.getLatitude() != null && customer.getLongitude() != null) {
+            return Optional.of(new GeoPoint(customer.getLatitude(), customer.getLongitude()));
+        }
+        return geocoder.locate(customer.getPostalCode(), customer.getCity());
+    }
 }
@@ -0,0 +1,26 @@
+package com.adao.service;
+
+import com.adao.projection.CleanerSummary;
+
+/**
+ * A cleaner found by a nearest-cleaner lookup or recommendation, with the distance from the search
+ * origin (null when there was none).
+ */
+public class NearbyCleaner {
+
+    private final CleanerSummary cleaner;
+    private final Double distanceKm;
+
+    public NearbyCleaner(CleanerSummary cleaner, Double distanceKm) {
+        this.cleaner = cleaner;
+        this.distanceKm = distanceKm;
+    }
+
+    public CleanerSummary getCleaner() {
+        return cleaner;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+}
@@ -0,0 +1,187 @@
+package com.adao.service;
+
+import com.adao.entity.Cleaner;
+import com.adao.entity.Customer;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Offline geocoder that places an address at the centroid of its postal code, or of its city when
+ * the postal code is missing or unknown. Centroids come from a CSV file (postal_code, place,
+ * latitude, longitude; a small one is bundled) or a tab-separated GeoNames postal-code extract.
+ */
+@Component
+public class PostalCodeGeocoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostalCodeGeocoder.class);
+
+    // GeoNames postal-code dump columns
+    private static final int GEONAMES_POSTAL_CODE = 1;
+    private static final int GEONAMES_PLACE = 2;
+    private static final int GEONAMES_LATITUDE = 9;
+    private static final int GEONAMES_LONGITUDE = 10;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.geo.centroids:classpath:geo/postal-centroids.csv}")
+    private Resource centroids;
+
+    @Value("${app.geo.backfillOnStartup:true}")
+    private boolean backfillOnStartup;
+
+    private final Map<String, GeoPoint> byPostalCode = new HashMap<>();
+    private final Map<String, GeoPoint> byPlace = new HashMap<>();
+
+    @PostConstruct
+    void load() throws IOException {
+        Map<String, double[]> placeSums = new HashMap<>();
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(centroids.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("postal_code,")) {
+                    continue;
+                }
+                boolean geonames = line.indexOf('\t') >= 0;
+                String[] fields = line.split(geonames ? "\t" : ",", -1);
+                try {
+                    String postalCode = fields[geonames ? GEONAMES_POSTAL_CODE : 0];
+                    String place = fields[geonames ? GEONAMES_PLACE : 1];
+                    double latitude = Double.parseDouble(fields[geonames ? GEONAMES_LATITUDE : 2].trim());
+                    double longitude = Double.parseDouble(fields[geonames ? GEONAMES_LONGITUDE : 3].trim());
+                    byPostalCode.putIfAbsent(postalCodeKey(postalCode), new GeoPoint(latitude, longitude));
+                    // A city's centroid is the mean of its postal-code centroids
+                    double[] sum = placeSums.computeIfAbsent(placeKey(place), k -> new double[3]);
+                    sum[0] += latitude;
+                    sum[1] += longitude;
+                    sum[2]++;
+                } catch (RuntimeException e) {
+                    skipped++;
+                }
+            }
+        }
+        placeSums.forEach((place, sum) -> byPlace.put(place, new GeoPoint(sum[0] / sum[2], sum[1] / sum[2])));
+        logger.info("Loaded {} postal-code centroids for {} places from {} ({} lines skipped)",
+                byPostalCode.size(), byPlace.size(), centroids.getDescription(), skipped);
+    }
+
+    public Optional<GeoPoint> locate(String postalCode, String city) {
+        if (postalCode != null && !postalCode.isBlank()) {
+            GeoPoint point = byPostalCode.get(postalCodeKey(postalCode));
+            if (point != null) {
+                return Optional.of(point);
+            }
+        }
+        if (city != null && !city.isBlank()) {
+            return Optional.ofNullable(byPlace.get(placeKey(city)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Sets the cleaner's coordinates from its address, clearing them when it cannot be located.
+     */
+    public void locate(Cleaner cleaner) {
+        Optional<GeoPoint> point = locate(cleaner.getPostalCode(), cleaner.getCity());
+        cleaner.setLatitude(point.map(GeoPoint::getLatitude).orElse(null));
+        cleaner.setLongitude(point.map(GeoPoint::getLongitude).orElse(null));
+    }
+
+    public void locate(Customer customer) {
+        Optional<GeoPoint> point = locate(customer.getPostalCode(), customer.getCity());
+        customer.setLatitude(point.map(GeoPoint::getLatitude).orElse(null));
+        customer.setLongitude(point.map(GeoPoint::getLongitude).orElse(null));
+    }
+
+    /**
+     * Locates the users saved before coordinates existed, one UPDATE per distinct address.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer cleaners = transactionTemplate.execute(status -> backfill(
+                cleanerRepository.findUnlocatedAddresses(), cleanerRepository::locateAddress));
+        Integer customers = transactionTemplate.execute(status -> backfill(
+                customerRepository.findUnlocatedAddresses(), customerRepository::locateAddress));
+        if (cleaners > 0) {
+            eventPublisher.publishEvent(new CleanerChangedEvent(null));
+        }
+        if (cleaners > 0 || customers > 0) {
+            logger.info("Located {} cleaners and {} customers", cleaners, customers);
+        }
+    }
+
+    private int backfill(List<Object[]> addresses, AddressUpdate update) {
+        int located = 0;
+        for (Object[] address : addresses) {
+            String postalCode = (String) address[0];
+            String city = (String) address[1];
+            Optional<GeoPoint> point = locate(postalCode, city);
+            if (point.isPresent()) {
+                located += update.apply(postalCode == null ? "" : postalCode, city == null ? "" : city,
+                        point.get().getLatitude(), point.get().getLongitude());
+            }
+        }
+        return located;
+    }
+
+    private static String postalCodeKey(String postalCode) {
+        return postalCode.replace(" ", "").trim().toUpperCase(Locale.ROOT);
+    }
+
+    // "Las Piñas City" and "las pinas" are the same place
+    private static String placeKey(String place) {
+        String key = Normalizer.normalize(place, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .trim()
+                .toLowerCase(Locale.ROOT);
+        if (key.startsWith("city of ")) {
+            key = key.substring("city of ".length());
+        }
+        if (key.endsWith(" city")) {
+            key = key.substring(0, key.length() - " city".length());
+        }
+        return key;
+    }
+
+    private interface AddressUpdate {
+        int apply(String postalCode, String city, double latitude, double longitude);
+    }
+}
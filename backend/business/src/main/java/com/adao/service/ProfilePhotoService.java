@@ -0,0 +1,363 @@
+package com.adao.service;
+
+import com.adao.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Turns uploaded profile photos into fixed-size JPEG avatars and thumbnails on a bounded worker
+ * pool, off the request thread. Outputs are named after a hash of the uploaded bytes, so they never
+ * change once written and a picture that was uploaded before is not processed or stored again.
+ * Each output is written to a temporary file and then handed to the {@link BlobStore}, and the
+ * profile only points at the avatar once both sizes are stored. Only the picture column is
+ * written, and only for the user's most recent upload, so a slow earlier upload never replaces
+ * a newer photo.
+ */
+@Service
+public class ProfilePhotoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePhotoService.class);
+
+    public static final int AVATAR_SIZE = 256;
+    public static final int THUMBNAIL_SIZE = 64;
+
+    // Refuse to decode anything larger; a small compressed file can declare enormous dimensions
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CleanerService cleanerService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Scratch space for uploads and encoded images before they reach the blob store
+    @Value("${app.photos.workDir:uploads/.incoming}")
+    private String workDir;
+
+    @Value("${app.photos.workers:2}")
+    private int workers;
+
+    @Value("${app.photos.queueCapacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.photos.jpegQuality:0.85}")
+    private float jpegQuality;
+
+    // Sequence number of each user's most recent upload that has not been applied yet
+    private final ConcurrentMap<Long, Long> latestUploads = new ConcurrentHashMap<>();
+    private final AtomicLong uploadSequence = new AtomicLong();
+    // Picture writes for the same user are applied one at a time, in the order they were claimed
+    private final Object[] writeLocks = new Object[32];
+
+    private Path incomingPath;
+    private ExecutorService executor;
+    private DistributionSummary uploadBytes;
+    private Timer receiveTimer;
+
+    @PostConstruct
+    void init() throws IOException {
+        for (int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new Object();
+        }
+        // The default sits inside the local uploads directory, so local stores can rename into place
+        incomingPath = Paths.get(workDir);
+        Files.createDirectories(incomingPath);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Queue length, active workers and queue wait are published as executor.* metrics
+        executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        runnable -> new Thread(runnable, "photo-worker-" + threadCount.incrementAndGet())),
+                "photo-worker");
+        uploadBytes = DistributionSummary.builder("uploads.bytes")
+                .description("Size of uploaded photos")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        receiveTimer = Timer.builder("uploads.receive")
+                .description("Time to store and hash an upload")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stores the upload and queues it for processing. Returns the URL the avatar will have once
+     * it is ready, which is immediately if the same picture was processed before. Throws
+     * {@link IllegalArgumentException} if the upload is not an image that can be decoded.
+     */
+    public String processCustomerPhoto(Long customerId, InputStream content) throws IOException {
+        return submit(customerId, content, url -> customerService.updateProfilePicture(customerId, url));
+    }
+
+    public String processCleanerPhoto(Long cleanerId, InputStream content) throws IOException {
+        return submit(cleanerId, content, url -> cleanerService.updateProfilePicture(cleanerId, url));
+    }
+
+    private String submit(Long userId, InputStream content, Consumer<String> setPicture) throws IOException {
+        Timer.Sample receiving = Timer.start(meterRegistry);
+        Path upload = Files.createTempFile(incomingPath, "upload-", ".tmp");
+        String baseName;
+        try (DigestInputStream in = new DigestInputStream(content, sha256())) {
+            uploadBytes.record(Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING));
+            MessageDigest digest = in.getMessageDigest();
+            // Output settings are part of the name, so changing them never serves stale files
+            digest.update((AVATAR_SIZE + "/" + THUMBNAIL_SIZE + "/" + jpegQuality).getBytes(StandardCharsets.UTF_8));
+            baseName = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (IOException e) {
+            deleteQuietly(upload);
+            throw e;
+        } finally {
+            receiving.stop(receiveTimer);
+        }
+        try {
+            checkImage(upload);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(upload);
+            countUpload("unreadable");
+            throw e;
+        }
+
+        long sequence = uploadSequence.incrementAndGet();
+        latestUploads.put(userId, sequence);
+        Consumer<String> onProcessed = url -> setIfLatest(userId, sequence, url, setPicture);
+        Runnable onFailed = () -> latestUploads.remove(userId, sequence);
+
+        String avatarUrl = blobStore.url(baseName + "-avatar.jpg");
+        if (blobStore.exists(baseName + "-avatar.jpg") && blobStore.exists(baseName + "-thumb.jpg")) {
+            deleteQuietly(upload);
+            countUpload("deduplicated");
+            onProcessed.accept(avatarUrl);
+            return avatarUrl;
+        }
+        try {
+            executor.execute(() -> process(baseName, upload, onProcessed, onFailed));
+        } catch (RejectedExecutionException e) {
+            onFailed.run();
+            deleteQuietly(upload);
+            countUpload("rejected");
+            throw new RuntimeException("Photo processing is busy, please try again shortly");
+        }
+        countUpload("queued");
+        return avatarUrl;
+    }
+
+    /**
+     * Points the profile at the new avatar unless a later upload for the same user was received
+     * in the meantime. Removing the user's entry only if it still holds this upload's sequence
+     * decides that atomically; the database write then runs outside the map. A newer upload
+     * registered after that point writes later under the same per-user lock, so it still wins.
+     */
+    private void setIfLatest(Long userId, long sequence, String url, Consumer<String> setPicture) {
+        synchronized (writeLocks[Math.floorMod(userId.hashCode(), writeLocks.length)]) {
+            if (!latestUploads.remove(userId, sequence)) {
+                logger.debug("Photo upload {} for user {} superseded by upload {}", sequence, userId,
+                        latestUploads.get(userId));
+                return;
+            }
+            setPicture.accept(url);
+        }
+    }
+
+    private void process(String baseName, Path upload, Consumer<String> onProcessed, Runnable onFailed) {
+        Timer.Sample processing = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            BufferedImage source = read(upload, AVATAR_SIZE * 2);
+            if (source == null) {
+                outcome = "unreadable";
+                logger.warn("Photo upload {} is not a readable image", baseName);
+                return;
+            }
+            writeJpeg(square(source, THUMBNAIL_SIZE), baseName + "-thumb.jpg");
+            String avatar = writeJpeg(square(source, AVATAR_SIZE), baseName + "-avatar.jpg");
+            onProcessed.accept(blobStore.url(avatar));
+            outcome = "processed";
+            logger.debug("Processed photo {}", baseName);
+        } catch (Exception e) {
+            logger.error("Processing photo {} failed", baseName, e);
+        } finally {
+            if (!"processed".equals(outcome)) {
+                onFailed.run();
+            }
+            deleteQuietly(upload);
+            processing.stop(Timer.builder("uploads.processing")
+                    .description("Time to resize and store an uploaded photo")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void countUpload(String outcome) {
+        meterRegistry.counter("uploads", "outcome", outcome).increment();
+    }
+
+    // Reads only the header, so an upload that is not an image is refused before it is queued
+    private static void checkImage(Path upload) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(upload.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("File is not a supported image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Image is too large: " + width + "x" + height);
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("File is not a readable image");
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Decodes the image, subsampling large sources while reading so that the decoded copy is
+     * not much bigger than {@code targetSize} on its shorter side.
+     */
+    private BufferedImage read(Path upload, int targetSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(upload.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    throw new RuntimeException("Image is too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.min(width, height) / targetSize);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Centre-crops to a square and scales down in halving steps, which keeps bilinear filtering sharp
+    private static BufferedImage square(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current = source.getSubimage((source.getWidth() - side) / 2,
+                (source.getHeight() - side) / 2, side, side);
+        int currentSize = side;
+        do {
+            currentSize = currentSize / 2 >= size ? currentSize / 2 : size;
+            BufferedImage scaled = new BufferedImage(currentSize, currentSize, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            try {
+                // JPEG has no alpha channel, so transparent areas become white
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, currentSize, currentSize);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentSize, currentSize, null);
+            } finally {
+                g.dispose();
+            }
+            current = scaled;
+        } while (currentSize > size);
+        return current;
+    }
+
+    private String writeJpeg(BufferedImage image, String fileName) throws IOException {
+        if (blobStore.exists(fileName)) {
+            return fileName;
+        }
+        Path temp = Files.createTempFile(incomingPath, "photo-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            blobStore.put(fileName, temp, "image/jpeg");
+        } finally {
+            deleteQuietly(temp);
+        }
+        return fileName;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
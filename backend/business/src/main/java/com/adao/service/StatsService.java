@@ -0,0 +1,116 @@
+package com.adao.service;
+
+import com.adao.entity.BookingCounter;
+import com.adao.entity.BookingStatus;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.CounterScope;
+import com.adao.repository.CleanerRepository;
+import com.adao.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard statistics read from the incrementally maintained booking counters instead of
+ * shipping every booking to the browser. Results are cached for a short, configurable time.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StatsService {
+
+    private static final int MAX_CACHED_ENTRIES = 10000;
+
+    @Autowired
+    private BookingCounterService counterService;
+
+    @Autowired
+    private CleanerRepository cleanerRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${app.stats.cacheTtlMs:30000}")
+    private long cacheTtlMs;
+
+    private final Map<String, CachedStats> cache = new ConcurrentHashMap<>();
+
+    public BookingStats getSystemStats() {
+        return cached("system", () -> {
+            BookingStats stats = fromCounters(CounterScope.ALL, null);
+
+            Map<CleanerStatus, Long> cleanersByStatus = new EnumMap<>(CleanerStatus.class);
+            long totalCleaners = 0;
+            for (Object[] row : cleanerRepository.countByCleanerStatus()) {
+                if (row[0] != null) {
+                    cleanersByStatus.put((CleanerStatus) row[0], (Long) row[1]);
+                }
+                totalCleaners += (Long) row[1];
+            }
+            stats.setCleanersByStatus(cleanersByStatus);
+            stats.setTotalCleaners(totalCleaners);
+            stats.setTotalCustomers(customerRepository.count());
+            return stats;
+        });
+    }
+
+    public BookingStats getCleanerStats(Long cleanerId) {
+        return cached("cleaner:" + cleanerId, () -> fromCounters(CounterScope.CLEANER, cleanerId));
+    }
+
+    public BookingStats getCustomerStats(Long customerId) {
+        return cached("customer:" + customerId, () -> fromCounters(CounterScope.CUSTOMER, customerId));
+    }
+
+    private BookingStats fromCounters(CounterScope scope, Long scopeId) {
+        BookingStats stats = new BookingStats();
+        // Rows: status, count, amount
+        for (Object[] row : counterService.getTotalsByStatus(scope, scopeId)) {
+            BookingStatus status = (BookingStatus) row[0];
+            long count = ((Number) row[1]).longValue();
+            stats.setTotalBookings(stats.getTotalBookings() + count);
+            stats.getBookingsByStatus().put(status, count);
+            if (status == BookingStatus.COMPLETED) {
+                stats.setCompletedRevenue(toBigDecimal(row[2]));
+            }
+        }
+        for (BookingCounter counter : counterService.getMonthCounters(scope, scopeId, LocalDate.now())) {
+            stats.setBookingsThisMonth(stats.getBookingsThisMonth() + counter.getBookingCount());
+            if (counter.getStatus() == BookingStatus.COMPLETED) {
+                stats.setCompletedRevenueThisMonth(counter.getTotalAmount());
+            }
+        }
+        return stats;
+    }
+
+    private BookingStats cached(String key, Supplier<BookingStats> loader) {
+        long now = System.currentTimeMillis();
+        CachedStats entry = cache.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.stats;
+        }
+        BookingStats stats = loader.get();
+        if (cache.size() >= MAX_CACHED_ENTRIES) {
+            cache.values().removeIf(cached -> cached.expiresAt <= now);
+        }
+        cache.put(key, new CachedStats(stats, now + cacheTtlMs));
+        return stats;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    }
+
+    private record CachedStats(BookingStats stats, long expiresAt) {
+    }
+}
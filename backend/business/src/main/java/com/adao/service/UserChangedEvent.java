@@ -0,0 +1,18 @@
+package com.adao.service;
+
+/**
+ * Published whenever a user's login-relevant data (username, email, roles, status, password)
+ * changes or the user is deleted. A null user id means any user may have changed.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    public UserChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.adao.service;
+
+import java.util.Map;
+
+/**
+ * One record read from a bulk import file, keyed by column (CSV) or property (NDJSON) name.
+ * A row the reader could not parse carries an error instead of values.
+ */
+public class UserImportRow {
+
+    private final long line;
+    private final Map<String, String> values;
+    private final String error;
+
+    private UserImportRow(long line, Map<String, String> values, String error) {
+        this.line = line;
+        this.values = values;
+        this.error = error;
+    }
+
+    public static UserImportRow of(long line, Map<String, String> values) {
+        return new UserImportRow(line, values, null);
+    }
+
+    public static UserImportRow malformed(long line, String error) {
+        return new UserImportRow(line, Map.of(), error);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,328 @@
+package com.adao.service;
+
+import com.adao.entity.Cleaner;
+import com.adao.entity.CleanerStatus;
+import com.adao.entity.Customer;
+import com.adao.entity.Role;
+import com.adao.entity.RoleName;
+import com.adao.entity.User;
+import com.adao.entity.UserStatus;
+import com.adao.repository.RoleRepository;
+import com.adao.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Registers cleaners or customers in bulk. Rows are checked against the usernames and emails
+ * already taken (loaded once, not queried per row), passwords are hashed on a bounded pool while
+ * reading continues, and each chunk is inserted in its own transaction as JDBC batches. A failing
+ * row is reported by line number and does not stop the import.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PostalCodeGeocoder geocoder;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.chunkSize:500}")
+    private int chunkSize;
+
+    @Value("${app.import.hashThreads:0}")
+    private int hashThreads;
+
+    @Value("${app.import.maxReportedErrors:1000}")
+    private int maxReportedErrors;
+
+    private ExecutorService hashExecutor;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        // When the queue is full the reading thread hashes the row itself, which throttles the reader
+        hashExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    public UserImportResult importCleaners(Iterator<UserImportRow> rows) {
+        UserImportResult result = importUsers(RoleName.ROLE_CLEANER, rows);
+        if (result.getImported() > 0) {
+            // One reload of the search index instead of an event per imported row
+            eventPublisher.publishEvent(new CleanerChangedEvent(null));
+        }
+        return result;
+    }
+
+    public UserImportResult importCustomers(Iterator<UserImportRow> rows) {
+        return importUsers(RoleName.ROLE_CUSTOMER, rows);
+    }
+
+    private UserImportResult importUsers(RoleName roleName, Iterator<UserImportRow> rows) {
+        Role role = roleRepository.findByName(roleName)
+                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+        Set<String> usernames = lowercase(userRepository.findAllUsernames());
+        Set<String> emails = lowercase(userRepository.findAllEmails());
+
+        long started = System.currentTimeMillis();
+        UserImportResult result = new UserImportResult(maxReportedErrors);
+        List<PendingUser> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            PendingUser pending = prepare(rows.next(), roleName, usernames, emails, result);
+            if (pending != null) {
+                chunk.add(pending);
+                if (chunk.size() == chunkSize) {
+                    write(chunk, role, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, role, result);
+        }
+        logger.info("Imported {} {} users ({} rows failed) in {} ms", result.getImported(), roleName,
+                result.getFailed(), System.currentTimeMillis() - started);
+        return result;
+    }
+
+    private PendingUser prepare(UserImportRow row, RoleName roleName, Set<String> usernames,
+                                Set<String> emails, UserImportResult result) {
+        if (row.getError() != null) {
+            result.recordFailure(row.getLine(), "Error: " + row.getError());
+            return null;
+        }
+        Map<String, String> values = row.getValues();
+        String password = value(values, "password");
+        User user;
+        try {
+            user = roleName == RoleName.ROLE_CLEANER ? toCleaner(values) : toCustomer(values);
+        } catch (NumberFormatException e) {
+            result.recordFailure(row.getLine(), "Error: hourlyRate is not a number");
+            return null;
+        }
+        user.setPassword(password);
+
+        String problem = validate(user, password);
+        if (problem != null) {
+            result.recordFailure(row.getLine(), "Error: " + problem);
+            return null;
+        }
+        String usernameKey = user.getUsername().toLowerCase(Locale.ROOT);
+        if (!usernames.add(usernameKey)) {
+            result.recordFailure(row.getLine(), "Error: Username is already taken!");
+            return null;
+        }
+        if (!emails.add(user.getEmail().toLowerCase(Locale.ROOT))) {
+            usernames.remove(usernameKey);
+            result.recordFailure(row.getLine(), "Error: Email is already in use!");
+            return null;
+        }
+        return new PendingUser(row.getLine(), user, hashExecutor.submit(() -> passwordEncoder.encode(password)));
+    }
+
+    private void write(List<PendingUser> chunk, Role role, UserImportResult result) {
+        List<PendingUser> ready = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            try {
+                pending.user.setPassword(pending.hash.get());
+                pending.user.setRoles(new HashSet<>(Set.of(role)));
+                ready.add(pending);
+            } catch (ExecutionException e) {
+                result.recordFailure(pending.line, "Error: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Error: Import was interrupted");
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(ready));
+            result.recordImported(ready.size());
+        } catch (RuntimeException e) {
+            // One bad row rolls back its whole chunk, so retry the chunk row by row to isolate it
+            logger.debug("Import chunk failed, retrying row by row: {}", e.getMessage());
+            for (PendingUser pending : ready) {
+                pending.user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(pending)));
+                    result.recordImported(1);
+                } catch (RuntimeException rowFailure) {
+                    result.recordFailure(pending.line, "Error: " + rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    private void persist(List<PendingUser> users) {
+        // Freshly imported users are not worth filling the second-level cache with
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        for (PendingUser pending : users) {
+            entityManager.persist(pending.user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String validate(User user, String password) {
+        // Same limits as the registration requests
+        if (password == null || password.length() < 6 || password.length() > 40) {
+            return "password: size must be between 6 and 40";
+        }
+        if (user.getUsername() == null || user.getUsername().length() < 3 || user.getUsername().length() > 20) {
+            return "username: size must be between 3 and 20";
+        }
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Cleaner toCleaner(Map<String, String> values) {
+        Cleaner cleaner = new Cleaner();
+        fillUser(cleaner, values);
+        cleaner.setAddress(value(values, "address"));
+        cleaner.setCity(value(values, "city"));
+        cleaner.setRegion(value(values, "region"));
+        cleaner.setPostalCode(value(values, "postalCode"));
+        if (value(values, "country") != null) {
+            cleaner.setCountry(value(values, "country"));
+        }
+        String hourlyRate = value(values, "hourlyRate");
+        cleaner.setHourlyRate(hourlyRate != null ? new BigDecimal(hourlyRate) : null);
+        cleaner.setBio(value(values, "bio"));
+        cleaner.setProfilePicture(value(values, "profilePicture"));
+        cleaner.setCleanerStatus(CleanerStatus.AVAILABLE);
+        geocoder.locate(cleaner);
+        return cleaner;
+    }
+
+    private Customer toCustomer(Map<String, String> values) {
+        Customer customer = new Customer();
+        fillUser(customer, values);
+        customer.setAddress(value(values, "address"));
+        customer.setCity(value(values, "city"));
+        customer.setRegion(value(values, "region"));
+        customer.setPostalCode(value(values, "postalCode"));
+        if (value(values, "country") != null) {
+            customer.setCountry(value(values, "country"));
+        }
+        customer.setBio(value(values, "bio"));
+        geocoder.locate(customer);
+        return customer;
+    }
+
+    private void fillUser(User user, Map<String, String> values) {
+        user.setUsername(value(values, "username"));
+        user.setEmail(value(values, "email"));
+        user.setFirstName(value(values, "firstName"));
+        user.setLastName(value(values, "lastName"));
+        user.setPhoneNumber(value(values, "phoneNumber"));
+        user.setStatus(UserStatus.ACTIVE);
+    }
+
+    private static String value(Map<String, String> values, String name) {
+        String value = values.get(name);
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    private static Set<String> lowercase(List<String> values) {
+        Set<String> set = new HashSet<>(values.size() * 2);
+        for (String value : values) {
+            set.add(value.toLowerCase(Locale.ROOT));
+        }
+        return set;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static class PendingUser {
+
+        private final long line;
+        private final User user;
+        private final Future<String> hash;
+
+        PendingUser(long line, User user, Future<String> hash) {
+            this.line = line;
+            this.user = user;
+            this.hash = hash;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.adao.entity.RoleName;
 import com.adao.repository.UserRepository;
 import com.adao.repository.RoleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +29,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -69,11 +73,14 @@ public class UserService {
     }
     
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userChanged(saved.getId());
+        return saved;
     }
     
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userChanged(id);
     }
     
     public void changePassword(Long userId, String newPassword) {
@@ -81,5 +88,13 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userChanged(userId);
+    }
+    
+    /**
+     * Announces that tokens issued to the user before now may carry stale details.
+     */
+    public void userChanged(Long userId) {
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 }
@@ -0,0 +1,33 @@
+package com.adao.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where uploaded media lives. Keys are plain file names; each implementation decides how they are
+ * laid out and what public URL they are served from, so instances behind a load balancer can share
+ * one store.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the file under the key, replacing any existing blob. The file is consumed: it is moved
+     * into place or streamed and deleted.
+     */
+    void put(String key, Path file, String contentType) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * The URL clients fetch the blob from.
+     */
+    String url(String key);
+
+    /**
+     * The file backing the blob, for stores on a local or mounted file system; empty for remote stores.
+     */
+    Optional<Path> localFile(String key);
+}
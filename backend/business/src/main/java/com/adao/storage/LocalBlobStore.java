@@ -0,0 +1,80 @@
+package com.adao.storage;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps blobs as files directly under one directory, served by the application itself.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    protected final Path root;
+    private final String publicUrl;
+
+    public LocalBlobStore(Path root, String publicUrl) throws IOException {
+        this.root = root;
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl : publicUrl + "/";
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // The file is on another file system; copy it next to the target first so readers never see half a file
+            Path staged = Files.createTempFile(target.getParent(), ".put-", ".tmp");
+            try {
+                Files.copy(file, staged, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(staged);
+            }
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return localFile(key).isPresent();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Optional<Path> file = localFile(key);
+        if (file.isPresent()) {
+            Files.deleteIfExists(file.get());
+        }
+    }
+
+    @Override
+    public String url(String key) {
+        return publicUrl + key;
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        Path file = resolve(key);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    protected Path resolve(String key) {
+        checkKey(key);
+        return root.resolve(key);
+    }
+
+    protected static void checkKey(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.adao.storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Stores blobs in an S3-compatible bucket (AWS S3, MinIO, Ceph and the like) over plain HTTP with
+ * Signature Version 4, so no SDK is needed. Uploads stream from the file and are sent with a
+ * long-lived immutable Cache-Control, and clients fetch blobs straight from the bucket or a CDN
+ * in front of it.
+ */
+public class S3BlobStore implements BlobStore {
+
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String EMPTY_PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final URI endpoint;
+    private final String region;
+    private final String bucket;
+    private final String accessKey;
+    private final String secretKey;
+    private final boolean pathStyle;
+    private final String publicUrl;
+    private final HttpClient httpClient;
+
+    /**
+     * @param pathStyle address the bucket as {@code endpoint/bucket/key} (MinIO and most stand-ins)
+     *                  rather than {@code bucket.endpoint/key}
+     * @param publicUrl base URL clients download from; defaults to the bucket URL when blank
+     */
+    public S3BlobStore(String endpoint, String region, String bucket, String accessKey, String secretKey,
+                       boolean pathStyle, String publicUrl) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.region = region;
+        this.bucket = bucket;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.pathStyle = pathStyle;
+        String base = publicUrl == null || publicUrl.isBlank() ? objectUri("").toString() : publicUrl;
+        this.publicUrl = base.endsWith("/") ? base : base + "/";
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        LocalBlobStore.checkKey(key);
+        HttpRequest.Builder request = HttpRequest.newBuilder(objectUri(key))
+                .PUT(HttpRequest.BodyPublishers.ofFile(file))
+                .header("Content-Type", contentType)
+                .header("Cache-Control", CACHE_CONTROL);
+        HttpResponse<String> response = send(request, "PUT", key, UNSIGNED_PAYLOAD);
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("S3 PUT " + key + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        LocalBlobStore.checkKey(key);
+        HttpRequest.Builder request = HttpRequest.newBuilder(objectUri(key))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody());
+        int status = send(request, "HEAD", key, EMPTY_PAYLOAD_HASH).statusCode();
+        if (status == 404) {
+            return false;
+        }
+        if (status / 100 != 2) {
+            throw new IOException("S3 HEAD " + key + " failed with " + status);
+        }
+        return true;
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        LocalBlobStore.checkKey(key);
+        HttpRequest.Builder request = HttpRequest.newBuilder(objectUri(key)).DELETE();
+        HttpResponse<String> response = send(request, "DELETE", key, EMPTY_PAYLOAD_HASH);
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+            throw new IOException("S3 DELETE " + key + " failed with " + response.statusCode());
+        }
+    }
+
+    @Override
+    public String url(String key) {
+        return publicUrl + key;
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        return Optional.empty();
+    }
+
+    private URI objectUri(String key) {
+        if (pathStyle) {
+            return URI.create(endpoint + "/" + bucket + "/" + key);
+        }
+        return URI.create(endpoint.getScheme() + "://" + bucket + "." + endpoint.getRawAuthority() + "/" + key);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String method, String key, String payloadHash)
+            throws IOException {
+        URI uri = objectUri(key);
+        String amzDate = ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE);
+        Map<String, String> signedHeaders = new TreeMap<>();
+        signedHeaders.put("host", uri.getRawAuthority());
+        signedHeaders.put("x-amz-content-sha256", payloadHash);
+        signedHeaders.put("x-amz-date", amzDate);
+        String authorization = authorization(method, uri.getRawPath(), "", signedHeaders, payloadHash,
+                amzDate, region, accessKey, secretKey);
+        request.header("x-amz-content-sha256", payloadHash)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(60));
+        try {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling S3", e);
+        }
+    }
+
+    /**
+     * Builds the SigV4 Authorization header. {@code headers} are the lower-cased headers to sign,
+     * in sorted order, and {@code path} must already be URI-encoded.
+     */
+    static String authorization(String method, String path, String query, Map<String, String> headers,
+                                String payloadHash, String amzDate, String region, String accessKey,
+                                String secretKey) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            canonicalHeaders.append(header.getKey()).append(':').append(header.getValue().trim()).append('\n');
+        }
+        String signedHeaders = String.join(";", headers.keySet());
+        String canonicalRequest = method + "\n" + path + "\n" + query + "\n" + canonicalHeaders + "\n"
+                + signedHeaders + "\n" + payloadHash;
+
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                + HexFormat.of().formatHex(sha256(canonicalRequest));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.adao.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * A {@link LocalBlobStore} that spreads files over two levels of 256 directories chosen by a hash
+ * of the key, keeping directories small with millions of files. Files written to the flat layout
+ * before sharding was enabled are still found.
+ */
+public class ShardedBlobStore extends LocalBlobStore {
+
+    public ShardedBlobStore(Path root, String publicUrl) throws IOException {
+        super(root, publicUrl);
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        Optional<Path> file = super.localFile(key);
+        if (file.isEmpty() && Files.isRegularFile(root.resolve(key))) {
+            return Optional.of(root.resolve(key));
+        }
+        return file;
+    }
+
+    @Override
+    protected Path resolve(String key) {
+        checkKey(key);
+        String hash = HexFormat.of().formatHex(sha1(key), 0, 2);
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(key);
+    }
+
+    private static byte[] sha1(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
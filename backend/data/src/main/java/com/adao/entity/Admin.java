@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "admins")
+@Cacheable(false)
 @PrimaryKeyJoinColumn(name = "user_id")
 public class Admin extends User {
     
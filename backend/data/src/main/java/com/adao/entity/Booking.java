@@ -13,7 +13,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_cleaner_date_status", columnList = "cleaner_id, booking_date, status"),
+        @Index(name = "idx_bookings_customer_date", columnList = "customer_id, booking_date"),
+        @Index(name = "idx_bookings_status_date", columnList = "status, booking_date"),
+        @Index(name = "idx_bookings_booking_date", columnList = "booking_date")
+})
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Booking {
@@ -48,6 +53,7 @@ public class Booking {
     private BookingStatus status = BookingStatus.PENDING;
     
     @Size(max = 500)
+    @Column(length = 500)
     private String specialInstructions;
     
     @Size(max = 255)
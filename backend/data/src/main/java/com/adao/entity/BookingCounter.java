@@ -0,0 +1,104 @@
+package com.adao.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running booking count and amount per scope (one cleaner or one customer), status and month.
+ * Maintained incrementally alongside booking writes. ALL-scope totals are summed from the
+ * cleaner rows rather than stored.
+ */
+@Entity
+@Table(name = "booking_counters",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_counters_key", columnNames = {"scope", "scope_id", "status", "period"}),
+        indexes = @Index(name = "idx_booking_counters_scope_period", columnList = "scope, period"))
+public class BookingCounter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private CounterScope scope;
+    
+    // 0 for the ALL scope
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private BookingStatus status;
+    
+    // First day of the booking month
+    @Column(nullable = false)
+    private LocalDate period;
+    
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount = 0L;
+    
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    // Constructors
+    public BookingCounter() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public CounterScope getScope() {
+        return scope;
+    }
+    
+    public void setScope(CounterScope scope) {
+        this.scope = scope;
+    }
+    
+    public Long getScopeId() {
+        return scopeId;
+    }
+    
+    public void setScopeId(Long scopeId) {
+        this.scopeId = scopeId;
+    }
+    
+    public BookingStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BookingStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDate getPeriod() {
+        return period;
+    }
+    
+    public void setPeriod(LocalDate period) {
+        this.period = period;
+    }
+    
+    public Long getBookingCount() {
+        return bookingCount;
+    }
+    
+    public void setBookingCount(Long bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,73 @@
+package com.adao.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * One row per cleaner per booked day. The unique key on (cleaner_id, slot_date) is what
+ * makes booking admission atomic: the second of two concurrent bookings fails on insert.
+ */
+@Entity
+@Table(name = "booking_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_slots_cleaner_day", columnNames = {"cleaner_id", "slot_date"}))
+public class BookingSlot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @Column(name = "cleaner_id", nullable = false)
+    private Long cleanerId;
+    
+    @NotNull
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+    
+    @Column(name = "booking_id", unique = true)
+    private Long bookingId;
+    
+    // Constructors
+    public BookingSlot() {}
+    
+    public BookingSlot(Long cleanerId, LocalDate slotDate, Long bookingId) {
+        this.cleanerId = cleanerId;
+        this.slotDate = slotDate;
+        this.bookingId = bookingId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getCleanerId() {
+        return cleanerId;
+    }
+    
+    public void setCleanerId(Long cleanerId) {
+        this.cleanerId = cleanerId;
+    }
+    
+    public LocalDate getSlotDate() {
+        return slotDate;
+    }
+    
+    public void setSlotDate(LocalDate slotDate) {
+        this.slotDate = slotDate;
+    }
+    
+    public Long getBookingId() {
+        return bookingId;
+    }
+    
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+}
@@ -31,6 +31,11 @@ public class Cleaner extends User {
     @Size(max = 100)
     private String country = "Philippines";
     
+    // Set from the postal code or city by the geocoder, not by clients
+    private Double latitude;
+    
+    private Double longitude;
+    
     @DecimalMin(value = "0.0", inclusive = false)
     private BigDecimal hourlyRate;
     
@@ -39,9 +44,11 @@ public class Cleaner extends User {
     private CleanerStatus cleanerStatus = CleanerStatus.AVAILABLE;
     
     @Size(max = 1000)
+    @Column(length = 1000)
     private String bio;
     
     @Size(max = 500)
+    @Column(length = 500)
     private String profilePicture;
     
     @OneToMany(mappedBy = "cleaner", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -101,6 +108,22 @@ public class Cleaner extends User {
         this.country = country;
     }
     
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
     public BigDecimal getHourlyRate() {
         return hourlyRate;
     }
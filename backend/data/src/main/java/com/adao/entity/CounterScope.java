@@ -0,0 +1,7 @@
+package com.adao.entity;
+
+public enum CounterScope {
+    ALL,
+    CLEANER,
+    CUSTOMER
+}
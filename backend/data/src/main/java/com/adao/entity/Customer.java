@@ -10,6 +10,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "customers")
+@Cacheable(false)
 @PrimaryKeyJoinColumn(name = "user_id")
 public class Customer extends User {
     
@@ -29,10 +30,17 @@ public class Customer extends User {
     @Size(max = 100)
     private String country = "Philippines";
     
+    // Set from the postal code or city by the geocoder, not by clients
+    private Double latitude;
+    
+    private Double longitude;
+    
     @Size(max = 1000)
+    @Column(length = 1000)
     private String bio;
     
     @Size(max = 500)
+    @Column(length = 500)
     private String profilePicture;
     
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -90,6 +98,22 @@ public class Customer extends User {
         this.country = country;
     }
     
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
     public String getBio() {
         return bio;
     }
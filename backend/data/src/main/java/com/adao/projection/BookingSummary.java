@@ -0,0 +1,117 @@
+package com.adao.projection;
+
+import com.adao.entity.BookingStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a booking for list endpoints. Built directly by JPQL constructor
+ * expressions, so only these columns are selected and no User subclass rows are loaded.
+ */
+public class BookingSummary {
+
+    private final Long id;
+    private final LocalDateTime bookingDate;
+    private final Integer durationHours;
+    private final BigDecimal totalAmount;
+    private final BookingStatus status;
+    private final String specialInstructions;
+    private final String serviceAddress;
+    private final LocalDateTime createdAt;
+    private final Party customer;
+    private final Party cleaner;
+
+    public BookingSummary(Long id, LocalDateTime bookingDate, Integer durationHours, BigDecimal totalAmount,
+                          BookingStatus status, String specialInstructions, String serviceAddress,
+                          LocalDateTime createdAt,
+                          Long customerId, String customerFirstName, String customerLastName,
+                          Long cleanerId, String cleanerFirstName, String cleanerLastName,
+                          BigDecimal cleanerHourlyRate) {
+        this.id = id;
+        this.bookingDate = bookingDate;
+        this.durationHours = durationHours;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.specialInstructions = specialInstructions;
+        this.serviceAddress = serviceAddress;
+        this.createdAt = createdAt;
+        this.customer = new Party(customerId, customerFirstName, customerLastName, null);
+        this.cleaner = new Party(cleanerId, cleanerFirstName, cleanerLastName, cleanerHourlyRate);
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getBookingDate() {
+        return bookingDate;
+    }
+
+    public Integer getDurationHours() {
+        return durationHours;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public String getSpecialInstructions() {
+        return specialInstructions;
+    }
+
+    public String getServiceAddress() {
+        return serviceAddress;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Party getCustomer() {
+        return customer;
+    }
+
+    public Party getCleaner() {
+        return cleaner;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Party {
+
+        private final Long id;
+        private final String firstName;
+        private final String lastName;
+        private final BigDecimal hourlyRate;
+
+        public Party(Long id, String firstName, String lastName, BigDecimal hourlyRate) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.hourlyRate = hourlyRate;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public BigDecimal getHourlyRate() {
+            return hourlyRate;
+        }
+    }
+}
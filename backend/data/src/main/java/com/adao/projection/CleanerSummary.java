@@ -0,0 +1,77 @@
+package com.adao.projection;
+
+import com.adao.entity.CleanerStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * The fields of a cleaner that search results show, built by a JPQL constructor expression.
+ */
+public class CleanerSummary {
+
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String city;
+    private final String region;
+    private final BigDecimal hourlyRate;
+    private final CleanerStatus cleanerStatus;
+    private final String profilePicture;
+    private final Double latitude;
+    private final Double longitude;
+
+    public CleanerSummary(Long id, String firstName, String lastName, String city, String region,
+                          BigDecimal hourlyRate, CleanerStatus cleanerStatus, String profilePicture,
+                          Double latitude, Double longitude) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.city = city;
+        this.region = region;
+        this.hourlyRate = hourlyRate;
+        this.cleanerStatus = cleanerStatus;
+        this.profilePicture = profilePicture;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public BigDecimal getHourlyRate() {
+        return hourlyRate;
+    }
+
+    public CleanerStatus getCleanerStatus() {
+        return cleanerStatus;
+    }
+
+    public String getProfilePicture() {
+        return profilePicture;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+}
@@ -0,0 +1,51 @@
+package com.adao.repository;
+
+import com.adao.entity.BookingCounter;
+import com.adao.entity.CounterScope;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BookingCounterRepository extends JpaRepository<BookingCounter, Long> {
+    
+    List<BookingCounter> findByScopeAndScopeIdAndPeriod(CounterScope scope, Long scopeId, LocalDate period);
+    
+    // Totals across all months: status, count, amount
+    @Query("SELECT c.status, sum(c.bookingCount), sum(c.totalAmount) FROM BookingCounter c " +
+           "WHERE c.scope = :scope AND c.scopeId = :scopeId GROUP BY c.status")
+    List<Object[]> sumByStatus(@Param("scope") CounterScope scope, @Param("scopeId") Long scopeId);
+    
+    // Totals over every row of a scope, across all months: status, count, amount
+    @Query("SELECT c.status, sum(c.bookingCount), sum(c.totalAmount) FROM BookingCounter c " +
+           "WHERE c.scope = :scope GROUP BY c.status")
+    List<Object[]> sumScopeByStatus(@Param("scope") CounterScope scope);
+    
+    // One month over every row of a scope: status, count, amount
+    @Query("SELECT c.status, sum(c.bookingCount), sum(c.totalAmount) FROM BookingCounter c " +
+           "WHERE c.scope = :scope AND c.period = :period GROUP BY c.status")
+    List<Object[]> sumPeriodByStatus(@Param("scope") CounterScope scope, @Param("period") LocalDate period);
+    
+    // Atomic increment; the row is created on first use. The query space keeps the rest of the L2 cache intact
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_counters"))
+    @Query(value = "INSERT INTO booking_counters (scope, scope_id, status, period, booking_count, total_amount) " +
+                   "VALUES (:scope, :scopeId, :status, :period, :count, :amount) " +
+                   "ON DUPLICATE KEY UPDATE booking_count = booking_count + :count, total_amount = total_amount + :amount",
+           nativeQuery = true)
+    int increment(@Param("scope") String scope,
+                  @Param("scopeId") Long scopeId,
+                  @Param("status") String status,
+                  @Param("period") LocalDate period,
+                  @Param("count") long count,
+                  @Param("amount") BigDecimal amount);
+}
@@ -1,40 +1,92 @@
 package com.adao.repository;
 
 import com.adao.entity.Booking;
-import com.adao.entity.BookingStatus;
-import com.adao.entity.Cleaner;
-import com.adao.entity.Customer;
+import com.adao.projection.BookingSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByCustomer(Customer customer);
-    List<Booking> findByCleaner(Cleaner cleaner);
-    List<Booking> findByStatus(BookingStatus status);
-    
-    @Query("SELECT b FROM Booking b WHERE b.bookingDate BETWEEN :startDate AND :endDate")
-    List<Booking> findByBookingDateBetween(@Param("startDate") LocalDateTime startDate, 
-                                          @Param("endDate") LocalDateTime endDate);
-    
-    @Query("SELECT b FROM Booking b WHERE b.customer = :customer AND b.status = :status")
-    List<Booking> findByCustomerAndStatus(@Param("customer") Customer customer, 
-                                         @Param("status") BookingStatus status);
-    
-    @Query("SELECT b FROM Booking b WHERE b.cleaner = :cleaner AND b.status = :status")
-    List<Booking> findByCleanerAndStatus(@Param("cleaner") Cleaner cleaner, 
-                                        @Param("status") BookingStatus status);
-
-    @Query("SELECT b FROM Booking b WHERE b.cleaner = :cleaner AND b.bookingDate BETWEEN :startOfDay AND :endOfDay AND b.status <> 'CANCELLED'")
-    List<Booking> findCleanerBookingsOnDay(@Param("cleaner") Cleaner cleaner,
-                                           @Param("startOfDay") LocalDateTime startOfDay,
-                                           @Param("endOfDay") LocalDateTime endOfDay);
-
-    // Hard delete all bookings for a specific cleaner (used when deleting a cleaner)
-    void deleteByCleaner(Cleaner cleaner);
+
+    // Left joins keep bookings as the driving table, so ordered pages read idx_bookings_booking_date up to
+    // the limit instead of sorting every booking; customer_id and cleaner_id are not null, so no rows change
+    String SUMMARY_SELECT = "SELECT new com.adao.projection.BookingSummary(b.id, b.bookingDate, b.durationHours, " +
+            "b.totalAmount, b.status, b.specialInstructions, b.serviceAddress, b.createdAt, " +
+            "cu.id, cu.firstName, cu.lastName, cl.id, cl.firstName, cl.lastName, cl.hourlyRate) " +
+            "FROM Booking b LEFT JOIN b.customer cu LEFT JOIN b.cleaner cl ";
+
+    @Query("SELECT b.cleaner.id, b.bookingDate FROM Booking b WHERE b.bookingDate >= :from AND b.status <> 'CANCELLED'")
+    List<Object[]> findActiveBookingSlotsFrom(@Param("from") LocalDateTime from);
+
+    @Query("SELECT b.cleaner.id, cast(b.bookingDate as LocalDate), count(b) FROM Booking b " +
+           "WHERE b.cleaner.id IN :cleanerIds AND b.bookingDate BETWEEN :startDate AND :endDate AND b.status <> 'CANCELLED' " +
+           "GROUP BY b.cleaner.id, cast(b.bookingDate as LocalDate)")
+    List<Object[]> countCleanerBookingsPerDay(@Param("cleanerIds") Collection<Long> cleanerIds,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
+
+    // Grouped by customer, cleaner, status and month: customerId, cleanerId, status, year, month, count, amount
+    @Query("SELECT b.customer.id, b.cleaner.id, b.status, year(b.bookingDate), month(b.bookingDate), count(b), coalesce(sum(b.totalAmount), 0) " +
+           "FROM Booking b GROUP BY b.customer.id, b.cleaner.id, b.status, year(b.bookingDate), month(b.bookingDate)")
+    List<Object[]> summarizeForCounters();
+
+    @Query("SELECT b.customer.id, b.cleaner.id, b.status, year(b.bookingDate), month(b.bookingDate), count(b), coalesce(sum(b.totalAmount), 0) " +
+           "FROM Booking b WHERE b.cleaner.id = :cleanerId " +
+           "GROUP BY b.customer.id, b.cleaner.id, b.status, year(b.bookingDate), month(b.bookingDate)")
+    List<Object[]> summarizeForCountersByCleaner(@Param("cleanerId") Long cleanerId);
+
+    @Query("SELECT b.customer.id, b.cleaner.id, b.status, year(b.bookingDate), month(b.bookingDate), count(b), coalesce(sum(b.totalAmount), 0) " +
+           "FROM Booking b WHERE b.customer.id = :customerId " +
+           "GROUP BY b.customer.id, b.cleaner.id, b.status, year(b.bookingDate), month(b.bookingDate)")
+    List<Object[]> summarizeForCountersByCustomer(@Param("customerId") Long customerId);
+
+    // Booking list projections: one row per booking, only the columns the lists display
+    @Query(SUMMARY_SELECT)
+    List<BookingSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE cu.id = :customerId")
+    List<BookingSummary> findSummariesByCustomerId(@Param("customerId") Long customerId);
+
+    @Query(SUMMARY_SELECT + "WHERE cl.id = :cleanerId")
+    List<BookingSummary> findSummariesByCleanerId(@Param("cleanerId") Long cleanerId);
+
+    // Keyset pagination on (bookingDate, id)
+    @Query(SUMMARY_SELECT + "ORDER BY b.bookingDate, b.id")
+    List<BookingSummary> findFirstPageOrderByBookingDate(Pageable pageable);
+
+    @Query(SUMMARY_SELECT +
+           "WHERE b.bookingDate > :afterDate OR (b.bookingDate = :afterDate AND b.id > :afterId) " +
+           "ORDER BY b.bookingDate, b.id")
+    List<BookingSummary> findPageAfterOrderByBookingDate(@Param("afterDate") LocalDateTime afterDate,
+                                                         @Param("afterId") Long afterId,
+                                                         Pageable pageable);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(SUMMARY_SELECT + "ORDER BY b.bookingDate, b.id")
+    Stream<BookingSummary> streamAllOrderByBookingDate();
+
+    @Query("SELECT b.cleaner.id, b.bookingDate FROM Booking b WHERE b.customer.id = :customerId AND b.status <> 'CANCELLED'")
+    List<Object[]> findActiveBookingSlotsByCustomerId(@Param("customerId") Long customerId);
+
+    // Set-based hard deletes used when a cleaner or customer is removed
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.cleaner.id = :cleanerId")
+    int deleteByCleanerId(@Param("cleanerId") Long cleanerId);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.customer.id = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
 }
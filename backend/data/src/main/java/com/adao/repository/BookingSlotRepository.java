@@ -0,0 +1,39 @@
+package com.adao.repository;
+
+import com.adao.entity.BookingSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface BookingSlotRepository extends JpaRepository<BookingSlot, Long> {
+    
+    boolean existsByCleanerIdAndSlotDate(Long cleanerId, LocalDate slotDate);
+    
+    @Modifying
+    @Query("DELETE FROM BookingSlot s WHERE s.bookingId = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+    
+    @Modifying
+    @Query("DELETE FROM BookingSlot s WHERE s.cleanerId = :cleanerId")
+    int deleteByCleanerId(@Param("cleanerId") Long cleanerId);
+    
+    @Modifying
+    @Query("DELETE FROM BookingSlot s WHERE s.bookingId IN (SELECT b.id FROM Booking b WHERE b.customer.id = :customerId)")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+    
+    // Reserve slots for active bookings created before slot tracking existed; duplicates are skipped
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_slots"))
+    @Query(value = "INSERT IGNORE INTO booking_slots (cleaner_id, slot_date, booking_id) " +
+                   "SELECT b.cleaner_id, DATE(b.booking_date), b.id FROM bookings b " +
+                   "WHERE b.status <> 'CANCELLED'", nativeQuery = true)
+    int backfillActiveBookings();
+}
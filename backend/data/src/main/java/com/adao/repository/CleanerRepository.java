@@ -2,19 +2,32 @@ package com.adao.repository;
 
 import com.adao.entity.Cleaner;
 import com.adao.entity.CleanerStatus;
+import com.adao.projection.CleanerSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CleanerRepository extends JpaRepository<Cleaner, Long> {
+
+    String SUMMARY_SELECT = "SELECT new com.adao.projection.CleanerSummary(c.id, c.firstName, c.lastName, " +
+            "c.city, c.region, c.hourlyRate, c.cleanerStatus, c.profilePicture, c.latitude, c.longitude) FROM Cleaner c ";
+
     Optional<Cleaner> findByEmail(String email);
+    // Query-cache results are dropped by Hibernate whenever the users or cleaners tables change
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Cleaner> findByCleanerStatus(CleanerStatus status);
+
     List<Cleaner> findByCity(String city);
     List<Cleaner> findByRegion(String region);
     
@@ -22,6 +35,51 @@ public interface CleanerRepository extends JpaRepository<Cleaner, Long> {
     List<Cleaner> findByHourlyRateLessThanEqualAndStatus(@Param("maxRate") BigDecimal maxRate, 
                                                          @Param("status") CleanerStatus status);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Cleaner c WHERE c.city = :city AND c.cleanerStatus = 'AVAILABLE'")
     List<Cleaner> findAvailableCleanersByCity(@Param("city") String city);
+    
+    @Query("SELECT c.cleanerStatus, count(c) FROM Cleaner c GROUP BY c.cleanerStatus")
+    List<Object[]> countByCleanerStatus();
+    
+    // One multi-table UPDATE; the JPQL form would go through Hibernate's temporary-table strategy for JOINED subclasses
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cleaners")
+    })
+    @Query(value = "UPDATE users u JOIN cleaners c ON c.user_id = u.id " +
+                   "SET c.cleaner_status = 'AVAILABLE', u.status = 'ACTIVE' " +
+                   "WHERE c.cleaner_status = 'PENDING_APPROVAL'", nativeQuery = true)
+    int activatePendingCleaners();
+
+    @Query(SUMMARY_SELECT)
+    List<CleanerSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE c.id = :id")
+    Optional<CleanerSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT c.postalCode, c.city FROM Cleaner c WHERE c.latitude IS NULL")
+    List<Object[]> findUnlocatedAddresses();
+
+    // Blank postal code and city stand for null, so rows without them can be matched too
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cleaners"))
+    @Query(value = "UPDATE cleaners SET latitude = :latitude, longitude = :longitude " +
+                   "WHERE latitude IS NULL AND COALESCE(postal_code, '') = :postalCode AND COALESCE(city, '') = :city",
+           nativeQuery = true)
+    int locateAddress(@Param("postalCode") String postalCode, @Param("city") String city,
+                      @Param("latitude") double latitude, @Param("longitude") double longitude);
+
+    // Sets only the picture, so edits saved while a photo was processing are kept
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cleaners"))
+    @Query(value = "UPDATE cleaners SET profile_picture = :url WHERE user_id = :id", nativeQuery = true)
+    int updateProfilePicture(@Param("id") Long id, @Param("url") String url);
+
+    @Query("SELECT c.id, c.updatedAt FROM Cleaner c")
+    List<Object[]> findAllVersions();
+
+    @Query("SELECT c.id, c.firstName, c.lastName, c.bio, c.updatedAt FROM Cleaner c WHERE c.id IN :ids")
+    List<Object[]> findSearchTextByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,7 +1,13 @@
 package com.adao.repository;
 
 import com.adao.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +18,22 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     List<Customer> findByCity(String city);
     List<Customer> findByRegion(String region);
+
+    @Query("SELECT DISTINCT c.postalCode, c.city FROM Customer c WHERE c.latitude IS NULL")
+    List<Object[]> findUnlocatedAddresses();
+
+    // Blank postal code and city stand for null, so rows without them can be matched too
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customers"))
+    @Query(value = "UPDATE customers SET latitude = :latitude, longitude = :longitude " +
+                   "WHERE latitude IS NULL AND COALESCE(postal_code, '') = :postalCode AND COALESCE(city, '') = :city",
+           nativeQuery = true)
+    int locateAddress(@Param("postalCode") String postalCode, @Param("city") String city,
+                      @Param("latitude") double latitude, @Param("longitude") double longitude);
+
+    // Sets only the picture, so edits saved while a photo was processing are kept
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customers"))
+    @Query(value = "UPDATE customers SET profile_picture = :url WHERE user_id = :id", nativeQuery = true)
+    int updateProfilePicture(@Param("id") Long id, @Param("url") String url);
 }
@@ -0,0 +1,117 @@
+-- Schema as previously created by Hibernate ddl-auto. Existing databases are baselined at this
+-- version (spring.flyway.baseline-on-migrate), so this script only runs on empty databases.
+
+create table admins (
+    user_id bigint not null,
+    admin_level enum ('SUPER_ADMIN','ADMIN'),
+    primary key (user_id)
+) engine=InnoDB;
+
+create table bookings (
+    duration_hours integer,
+    total_amount decimal(38,2),
+    booking_date datetime(6),
+    cleaner_id bigint not null,
+    created_at datetime(6) not null,
+    customer_id bigint not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    service_address varchar(255),
+    special_instructions varchar(255),
+    status enum ('PENDING','CONFIRMED','IN_PROGRESS','COMPLETED','CANCELLED','NO_SHOW'),
+    primary key (id)
+) engine=InnoDB;
+
+create table cleaners (
+    hourly_rate decimal(38,2),
+    user_id bigint not null,
+    address varchar(255),
+    bio varchar(255),
+    city varchar(255),
+    country varchar(255),
+    postal_code varchar(255),
+    profile_picture varchar(255),
+    region varchar(255),
+    cleaner_status enum ('PENDING_APPROVAL','AVAILABLE','BUSY','OFFLINE','ON_BREAK'),
+    primary key (user_id)
+) engine=InnoDB;
+
+create table customers (
+    user_id bigint not null,
+    address varchar(255),
+    bio varchar(255),
+    city varchar(255),
+    country varchar(255),
+    postal_code varchar(255),
+    profile_picture varchar(255),
+    region varchar(255),
+    primary key (user_id)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    description varchar(255),
+    name enum ('ROLE_SUPER_ADMIN','ROLE_ADMIN','ROLE_CLEANER','ROLE_CUSTOMER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+) engine=InnoDB;
+
+create table users (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    username varchar(255),
+    status enum ('ACTIVE','INACTIVE','SUSPENDED','PENDING_VERIFICATION'),
+    primary key (id)
+) engine=InnoDB;
+
+alter table users
+   add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table users
+   add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table admins
+   add constraint FKgc8dtql9mkq268detxiox7fpm
+   foreign key (user_id)
+   references users (id);
+
+alter table bookings
+   add constraint FKteq1vioagvk85r6s20tfjp00u
+   foreign key (cleaner_id)
+   references cleaners (user_id);
+
+alter table bookings
+   add constraint FKbvfibgflhsb0g2hnjauiv5khs
+   foreign key (customer_id)
+   references customers (user_id);
+
+alter table cleaners
+   add constraint FKhjb10fh0ophwx3e5vqshxhkci
+   foreign key (user_id)
+   references users (id);
+
+alter table customers
+   add constraint FKrh1g1a20omjmn6kurd35o3eit
+   foreign key (user_id)
+   references users (id);
+
+alter table user_roles
+   add constraint FKh8ciramu9cc9q3qcqiv4ue8a6
+   foreign key (role_id)
+   references roles (id);
+
+alter table user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users (id);
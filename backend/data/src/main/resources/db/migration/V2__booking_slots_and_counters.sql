@@ -0,0 +1,23 @@
+-- Tables added after the baseline. Databases that already got them from ddl-auto keep theirs.
+
+create table if not exists booking_slots (
+    slot_date date not null,
+    booking_id bigint,
+    cleaner_id bigint not null,
+    id bigint not null auto_increment,
+    primary key (id),
+    constraint uk_booking_slots_cleaner_day unique (cleaner_id, slot_date),
+    constraint UK_13k01yh57kj87l21uyf0ig8fk unique (booking_id)
+) engine=InnoDB;
+
+create table if not exists booking_counters (
+    period date not null,
+    total_amount decimal(19,2) not null,
+    booking_count bigint not null,
+    id bigint not null auto_increment,
+    scope_id bigint not null,
+    scope enum ('ALL','CLEANER','CUSTOMER') not null,
+    status enum ('PENDING','CONFIRMED','IN_PROGRESS','COMPLETED','CANCELLED','NO_SHOW') not null,
+    primary key (id),
+    constraint uk_booking_counters_key unique (scope, scope_id, status, period)
+) engine=InnoDB;
@@ -0,0 +1,17 @@
+-- Indexes for the booking access paths:
+--   cleaner day checks, availability and cleaner listings -> (cleaner_id, booking_date, status)
+--   customer listings                                     -> (customer_id, booking_date)
+--   status filters and the active-booking scans           -> (status, booking_date)
+--   date ranges and keyset pages (InnoDB appends the id)  -> (booking_date)
+
+create index idx_bookings_cleaner_date_status
+   on bookings (cleaner_id, booking_date, status);
+
+create index idx_bookings_customer_date
+   on bookings (customer_id, booking_date);
+
+create index idx_bookings_status_date
+   on bookings (status, booking_date);
+
+create index idx_bookings_booking_date
+   on bookings (booking_date);
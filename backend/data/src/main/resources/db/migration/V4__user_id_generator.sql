@@ -0,0 +1,22 @@
+-- Table-backed ids for the users hierarchy, so Hibernate can batch user inserts.
+-- The pooled optimizer hands out the block ending at next_val first, so start one block
+-- (allocationSize = 100) above the current maximum id.
+
+create table id_generators (
+    next_val bigint,
+    sequence_name varchar(255) not null,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+insert into id_generators (sequence_name, next_val)
+select 'users', coalesce(max(id), 0) + 101 from users;
+
+-- Ids now come only from the generator. An AUTO_INCREMENT counter would follow the ids Hibernate
+-- inserts and hand out the rest of a block it has reserved, so inserts outside Hibernate must
+-- reserve a block too (see create_superadmin.sql). MySQL refuses to alter a column that foreign
+-- keys reference unless the checks are off for the statement.
+set foreign_key_checks = 0;
+
+alter table users modify id bigint not null;
+
+set foreign_key_checks = 1;
@@ -0,0 +1,8 @@
+-- Coordinates from the postal-code centroid geocoder, used for nearest-cleaner lookups.
+-- Null until the address can be located.
+
+alter table cleaners add column latitude double;
+alter table cleaners add column longitude double;
+
+alter table customers add column latitude double;
+alter table customers add column longitude double;
@@ -0,0 +1,6 @@
+-- ALL-scope booking totals are now summed from the CLEANER rows instead of kept in a row that
+-- every booking write had to lock. The month lookup over all cleaners uses the new index.
+
+delete from booking_counters where scope = 'ALL';
+
+create index idx_booking_counters_scope_period on booking_counters (scope, period);
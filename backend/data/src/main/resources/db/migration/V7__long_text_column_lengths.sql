@@ -0,0 +1,10 @@
+-- bio, profile_picture and special_instructions accept up to 1000/500 characters but were created
+-- as varchar(255), so longer values passed validation and then failed on insert.
+
+alter table cleaners modify column bio varchar(1000);
+alter table cleaners modify column profile_picture varchar(500);
+
+alter table customers modify column bio varchar(1000);
+alter table customers modify column profile_picture varchar(500);
+
+alter table bookings modify column special_instructions varchar(500);
@@ -1,12 +1,19 @@
 -- Create super admin manually
 USE cleaningservice;
 
+-- User ids come from id_generators, shared with the application: reserve a block of 100
+-- the way Hibernate's pooled generator does and take its first id
+START TRANSACTION;
+SELECT next_val INTO @block_end FROM id_generators WHERE sequence_name = 'users' FOR UPDATE;
+UPDATE id_generators SET next_val = next_val + 100 WHERE sequence_name = 'users';
+COMMIT;
+
 -- First, create the user if it doesn't exist
-INSERT IGNORE INTO users (username, email, password, first_name, last_name, phone_number, status, created_at, updated_at)
-VALUES ('superadmin', 'superadmin@cleaningservice.com', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDa', 'Super', 'Admin', '123-456-7890', 'ACTIVE', NOW(), NOW());
+INSERT IGNORE INTO users (id, username, email, password, first_name, last_name, phone_number, status, created_at, updated_at)
+VALUES (@block_end - 99, 'superadmin', 'superadmin@cleaningservice.com', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDa', 'Super', 'Admin', '123-456-7890', 'ACTIVE', NOW(), NOW());
 
 -- Get the user ID
-SET @user_id = LAST_INSERT_ID();
+SET @user_id = (SELECT id FROM users WHERE username = 'superadmin');
 
 -- Create admin record
 INSERT IGNORE INTO admins (user_id, admin_level)